@@ -28,6 +28,7 @@ GROUPS=""
 EXCLUDE_GROUPS=""
 CLEAN_BUILD="false"
 DRY_RUN="false"
+VIRTUAL_THREADS="false"
 
 # Print banner
 print_banner() {
@@ -53,6 +54,7 @@ print_usage() {
     echo "  -g, --groups LIST        Test groups to include"
     echo "  -x, --exclude LIST       Test groups to exclude"
     echo "  -c, --clean              Clean build before execution"
+    echo "  -v, --virtual-threads    Run API suites on virtual threads"
     echo "  -d, --dry-run            Show what would be executed"
     echo "  --help                   Show this help"
     echo ""
@@ -106,6 +108,10 @@ parse_arguments() {
                 DRY_RUN="true"
                 shift
                 ;;
+            -v|--virtual-threads)
+                VIRTUAL_THREADS="true"
+                shift
+                ;;
             --help)
                 print_usage
                 exit 0
@@ -190,6 +196,9 @@ run_tests() {
     if [ -n "$EXCLUDE_GROUPS" ]; then
         MAVEN_CMD="$MAVEN_CMD -DexcludedGroups=$EXCLUDE_GROUPS"
     fi
+    if [ "$VIRTUAL_THREADS" = "true" ]; then
+        MAVEN_CMD="$MAVEN_CMD -Dapi.virtual.threads.enabled=true"
+    fi
 
     if [ "$DRY_RUN" = "true" ]; then
         echo -e "${CYAN}Dry run - would execute:${NC}"
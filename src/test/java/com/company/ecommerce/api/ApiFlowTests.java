@@ -1,47 +1,40 @@
 package com.company.ecommerce.api;
 
 import com.company.ecommerce.base.BaseAPITest;
-import com.company.ecommerce.utils.ExcelReader;
 import com.company.ecommerce.utils.ParameterResolver;
+import com.company.ecommerce.utils.flow.FlowExecutor;
+import com.company.ecommerce.utils.flow.FlowPlan;
+import com.company.ecommerce.utils.flow.FlowStep;
 import com.company.ecommerce.utils.testdata.TestDataProvider;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.response.Response;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.hamcrest.Matchers.equalTo;
 
 public class ApiFlowTests  extends BaseAPITest {
 
-    private Map<String, Object> context;
-    private ParameterResolver parameterResolver;
-
-    @BeforeClass
-    public void setUp() {
-        context = new HashMap<>();
-        parameterResolver =new ParameterResolver(context);
-    }
-
     @Test(dataProvider = "flowName", dataProviderClass = TestDataProvider.class)
     public void testApiFlow(String sheetName)  {
-        //获取所有流程用例
-        Iterator<Map<String, String>> mapIterator = ExcelReader.getUserDataAsMap("flow.xlsx", sheetName);
-        while (mapIterator.hasNext()) {
-            Map<String, String> map = mapIterator.next();
+        // 每个流程独立的上下文；互不依赖的步骤会并发执行，上下文需线程安全
+        Map<String, Object> context = new ConcurrentHashMap<>();
+        ParameterResolver parameterResolver = new ParameterResolver(context);
+
+        //获取所有流程用例，按 ${var} 引用和 dependsOn 列分析步骤依赖
+        FlowPlan plan = FlowPlan.of(FlowStep.fromSheet(sheetName));
+        FlowExecutor.fromConfig().execute(plan, step -> {
             //处理请求参数，上下文ID，程序生成ID
-            JsonNode requestBody=parameterResolver.requestResolve(map.get("requestBody"));
-            Response response = post(map.get("url"), requestBody);
+            JsonNode requestBody=parameterResolver.requestResolve(step.getRequestBody());
+            Response response = post(step.getUrl(), requestBody);
             response.then()
                     .statusCode(200)
                     .body("status", equalTo(1))
             ;
             //获取ID放入上下文
-            parameterResolver.responseSave(map.get("responseExtracts"),response);
-        }
-        context.clear();
+            parameterResolver.responseSave(step.getResponseExtracts(),response);
+        });
     }
 }
@@ -0,0 +1,44 @@
+package com.company.ecommerce.api;
+
+import com.company.ecommerce.base.BaseAPITest;
+import com.company.ecommerce.config.ConfigManager;
+import com.company.ecommerce.reporters.AllureManager;
+import com.company.ecommerce.utils.load.LoadGenerator;
+import com.company.ecommerce.utils.load.LoadProfile;
+import com.company.ecommerce.utils.load.LoadReport;
+import com.company.ecommerce.utils.load.LoadScenario;
+import com.company.ecommerce.utils.testdata.TestDataProvider;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * 压测模式 - 直接回放 single.xlsx / flow.xlsx 中的接口用例
+ * 场景与压测参数均来自配置（load.*），通过 test-suites/load-test.xml 运行
+ */
+public class ApiLoadTests extends BaseAPITest {
+
+    @Test(
+            groups = {"load"},
+            dataProvider = "loadScenarios",
+            dataProviderClass = TestDataProvider.class,
+            description = "按 Excel 用例回放压测"
+    )
+    public void testLoad(LoadScenario scenario) {
+        LoadProfile profile = LoadProfile.fromConfig();
+        LoadGenerator generator = new LoadGenerator(profile,
+                exchange -> signedRequest(exchange).post(exchange.getUrl()));
+
+        LoadReport report = generator.run(scenario);
+        report.logSummary();
+        AllureManager.addJsonAttachment(report.writeJson(), "压测结果 - " + scenario.getName());
+
+        double maxErrorRate = Double.parseDouble(
+                ConfigManager.getInstance().getProperty("load.max.error.rate", "0.01"));
+        // 被丢弃的到达（在途请求达到 load.max.in.flight）同样计为失败，否则过载时失败率反而偏低
+        long failed = report.getFailedIterations() + report.getDropped();
+        long attempted = Math.max(report.getIterations() + report.getDropped(), 1);
+        double errorRate = (double) failed / attempted;
+        Assert.assertTrue(errorRate <= maxErrorRate,
+                String.format("压测失败率（含丢弃）%.2f%% 超过阈值 %.2f%%", errorRate * 100, maxErrorRate * 100));
+    }
+}
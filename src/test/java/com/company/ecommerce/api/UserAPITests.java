@@ -4,6 +4,8 @@ package com.company.ecommerce.api;
 import com.company.ecommerce.assertion.EnhancedSmartJsonAssert;
 import com.company.ecommerce.base.BaseAPITest;
 import com.company.ecommerce.models.User;
+import com.company.ecommerce.utils.ApiExchange;
+import com.company.ecommerce.utils.AsyncDbVerifier;
 import com.company.ecommerce.utils.ParameterResolver;
 import com.company.ecommerce.utils.testdata.TestDataProvider;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -45,19 +47,22 @@ public class UserAPITests extends BaseAPITest {
 //                .post(CREATE_USER);
         JsonNode requestBody=parameterResolver.requestResolve(dataMap.get("requestBody"));
 
-        Response response = post(CREATE_USER,requestBody);
+        ApiExchange exchange = send(CREATE_USER,requestBody);
         if (dataMap.get("expecteResponse")!=null&&!dataMap.get("expecteResponse").isEmpty()){
-            EnhancedSmartJsonAssert.smartAssert(response.asString(),dataMap.get("expecteResponse"));
+            EnhancedSmartJsonAssert.smartAssert(exchange,dataMap.get("expecteResponse"));
         }
 
         //获取ID放入上下文
-        parameterResolver.responseSave(dataMap.get("responseExtracts"),response);
+        parameterResolver.responseSave(dataMap.get("responseExtracts"),exchange.getResponse());
 
         if (dataMap.get("queryDatabase")!=null&&!dataMap.get("queryDatabase").isEmpty()){
             String sql = parameterResolver.sqlResolve(dataMap.get("queryDatabase"));
-            Object resultObject =queryDatabase(sql);
-//            System.out.println(resultObject);
-            Assert.assertNotNull(resultObject, "对象不应该为null");
+            // 开启 db.verify.async 时交给后台批量校验，本条用例方法结束后等待校验完成，失败写入本条用例的结果
+            if (!AsyncDbVerifier.enqueueNotNull(sql)) {
+                Object resultObject =awaitDatabase(sql);
+//                System.out.println(resultObject);
+                Assert.assertNotNull(resultObject, "对象不应该为null");
+            }
         }
 
 
@@ -1,26 +1,40 @@
 package com.company.ecommerce.assertion;
 
+import com.company.ecommerce.config.ConfigManager;
+import com.company.ecommerce.utils.ApiExchange;
+import com.company.ecommerce.utils.JsonCodecRegistry;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import org.json.JSONArray;
-import org.json.JSONObject;
-import org.skyscreamer.jsonassert.Customization;
-import org.skyscreamer.jsonassert.JSONAssert;
 import org.skyscreamer.jsonassert.JSONCompareMode;
-import org.skyscreamer.jsonassert.comparator.CustomComparator;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 /**
  * 增强版智能JSON断言工具
  * 支持在预期JSON中使用标识符进行灵活验证
+ * 预期JSON编译为断言计划后按原文缓存，同一预期模板重复断言时只解析实际响应；
+ * 比较由 {@link JsonTreeComparator} 直接在 Jackson 树上完成，一次报告全部差异；
+ * 超过 assert.streaming.threshold.bytes 的响应改为按 token 流比较，不再构建整棵响应树
  */
 public class EnhancedSmartJsonAssert {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper objectMapper = JsonCodecRegistry.mapper();
+
+    // 预期JSON -> 断言计划
+    private static final ConcurrentMap<String, AssertionPlan> PLANS = new ConcurrentHashMap<>();
+
+    // 响应体达到该字节数时改用流式断言，0 表示始终构建响应树
+    private static final int STREAMING_THRESHOLD_BYTES =
+            ConfigManager.getInstance().getIntProperty("assert.streaming.threshold.bytes", 1024 * 1024);
 
     // 基础标识符
     public static final String IGNORE = "${ignore}";           // 忽略该字段
@@ -81,78 +95,115 @@ public class EnhancedSmartJsonAssert {
      * @param expectedJson 包含标识符的预期JSON字符串
      */
     public static void smartAssert(String actualJson, String expectedJson) throws Exception {
-        // 解析实际响应为JsonNode用于分析
-        JsonNode actualNode = objectMapper.readTree(actualJson);
+        plan(expectedJson).verify(objectMapper.readTree(actualJson), JsonTreeComparator.Mode.STRICT);
+    }
+
+    /**
+     * 智能断言：直接使用 API 信封中已解析的响应树，避免重复读取/解析响应体；
+     * 响应体超过流式阈值时直接在响应字节上流式比较
+     * @param exchange API 调用信封
+     * @param expectedJson 包含标识符的预期JSON字符串
+     */
+    public static void smartAssert(ApiExchange exchange, String expectedJson) throws Exception {
+        byte[] body = exchange.getResponseBody();
+        if (STREAMING_THRESHOLD_BYTES > 0 && body != null && body.length >= STREAMING_THRESHOLD_BYTES) {
+            try (JsonParser parser = objectMapper.createParser(body)) {
+                plan(expectedJson).verify(parser, JsonTreeComparator.Mode.STRICT);
+            }
+            return;
+        }
+        plan(expectedJson).verify(exchange.getResponseTree(), JsonTreeComparator.Mode.STRICT);
+    }
+
+    /**
+     * 流式智能断言：边读边与预期模板比较，只缓冲带标识符的字段和忽略顺序的数组，
+     * 不构建实际响应的字符串或整棵树，适合几 MB 以上的列表响应
+     * @param actualJson 实际响应流，由调用方关闭
+     * @param expectedJson 包含标识符的预期JSON字符串
+     */
+    public static void smartAssertStreaming(InputStream actualJson, String expectedJson) throws Exception {
+        try (JsonParser parser = objectMapper.createParser(actualJson)) {
+            plan(expectedJson).verify(parser, JsonTreeComparator.Mode.STRICT);
+        }
+    }
+
+    /**
+     * 取得预期JSON对应的断言计划，同一预期模板在进程内只编译一次
+     */
+    private static AssertionPlan plan(String expectedJson) throws IOException {
+        try {
+            return PLANS.computeIfAbsent(expectedJson, json -> {
+                try {
+                    return AssertionPlan.compile(json);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 预编译的断言计划：预期结构和绑定在标识符节点上的验证规则
+     * 只依赖预期JSON，与实际响应无关，不可变、可跨线程复用
+     */
+    private static class AssertionPlan {
+
+        private final JsonNode expected;
+        private final Map<JsonNode, Predicate<JsonNode>> validations;
+        private final JsonTreeComparator strict;
 
-        // 解析预期响应中的标识符，收集自定义验证规则
-        Map<String, CustomValidation> validations = new HashMap<>();
-        collectValidations(actualNode, expectedJson, "", validations);
+        private AssertionPlan(JsonNode expected, Map<JsonNode, Predicate<JsonNode>> validations) {
+            this.expected = expected;
+            this.validations = validations;
+            this.strict = comparator(JsonTreeComparator.Mode.STRICT);
+        }
 
-        // 构建Customization数组
-        List<Customization> customizations = new ArrayList<>();
-        for (Map.Entry<String, CustomValidation> entry : validations.entrySet()) {
-            String fieldPath = entry.getKey();
-            CustomValidation validation = entry.getValue();
+        private static AssertionPlan compile(String expectedJson) throws IOException {
+            JsonNode expectedNode = objectMapper.readTree(expectedJson);
 
-            customizations.add(Customization.customization(fieldPath,
-                    (actual, expected) -> validation.validate(actual)));
+            // 解析预期响应中的标识符，收集自定义验证规则
+            Map<JsonNode, Predicate<JsonNode>> validations = new IdentityHashMap<>();
+            collectValidations(expectedNode, validations);
+            return new AssertionPlan(expectedNode, validations);
         }
 
-        // 移除标识符，得到纯净的预期JSON用于结构验证
-        String cleanExpectedJson = removeMarkers(expectedJson);
+        private JsonTreeComparator comparator(JsonTreeComparator.Mode mode) {
+            JsonTreeComparator.Builder builder = JsonTreeComparator.builder(mode);
+            validations.forEach(builder::validate);
+            return builder.build();
+        }
 
-        // 执行断言
-        CustomComparator comparator = new CustomComparator(
-                JSONCompareMode.STRICT,
-                customizations.toArray(new Customization[0])
-        );
+        /**
+         * 执行断言，一次报告全部差异
+         */
+        private void verify(JsonNode actual, JsonTreeComparator.Mode mode) {
+            JsonTreeComparator comparator = mode == JsonTreeComparator.Mode.STRICT ? strict : comparator(mode);
+            comparator.assertEquals(expected, actual);
+        }
 
-        JSONAssert.assertEquals(cleanExpectedJson, actualJson, comparator);
+        private void verify(JsonParser actual, JsonTreeComparator.Mode mode) throws IOException {
+            JsonTreeComparator comparator = mode == JsonTreeComparator.Mode.STRICT ? strict : comparator(mode);
+            comparator.assertEquals(expected, actual);
+        }
     }
 
     /**
-     * 递归收集所有需要自定义验证的字段
+     * 递归收集标识符节点及其验证规则（对象字段和数组元素均可使用标识符）
      */
-    private static void collectValidations(JsonNode actualNode, String expectedJson,
-                                           String path, Map<String, CustomValidation> validations) throws IOException {
-        JsonNode expectedNode = objectMapper.readTree(expectedJson);
-        collectValidationsFromNode(actualNode, expectedNode, path, validations);
-    }
-
-    private static void collectValidationsFromNode(JsonNode actualNode, JsonNode expectedNode,
-                                                   String path, Map<String, CustomValidation> validations) {
-        if (expectedNode.isObject()) {
-            Iterator<Map.Entry<String, JsonNode>> fields = expectedNode.fields();
-            while (fields.hasNext()) {
-                Map.Entry<String, JsonNode> field = fields.next();
-                String fieldName = field.getKey();
-                JsonNode expectedValue = field.getValue();
-                JsonNode actualValue = actualNode != null ? actualNode.get(fieldName) : null;
-
-                String currentPath = path.isEmpty() ? fieldName : path + "." + fieldName;
-
-                if (expectedValue.isTextual()) {
-                    String textValue = expectedValue.asText();
-                    if (isMarker(textValue)) {
-                        CustomValidation validation = createValidation(textValue);
-                        if (validation != null) {
-                            validations.put(currentPath, validation);
-                            continue;
-                        }
-                    }
-                }
-
-                // 递归处理子对象
-                if (actualValue != null && expectedValue != null) {
-                    collectValidationsFromNode(actualValue, expectedValue, currentPath, validations);
+    private static void collectValidations(JsonNode expectedNode, Map<JsonNode, Predicate<JsonNode>> validations) {
+        if (expectedNode.isTextual()) {
+            String textValue = expectedNode.asText();
+            if (isMarker(textValue)) {
+                Predicate<JsonNode> validation = createValidation(textValue);
+                if (validation != null) {
+                    validations.put(expectedNode, validation);
                 }
             }
-        } else if (expectedNode.isArray()) {
-            for (int i = 0; i < expectedNode.size(); i++) {
-                if (actualNode != null && actualNode.isArray() && i < actualNode.size()) {
-                    collectValidationsFromNode(actualNode.get(i), expectedNode.get(i),
-                            path + "[" + i + "]", validations);
-                }
+        } else if (expectedNode.isContainerNode()) {
+            for (JsonNode child : expectedNode) {
+                collectValidations(child, validations);
             }
         }
     }
@@ -165,137 +216,100 @@ public class EnhancedSmartJsonAssert {
     }
 
     /**
-     * 根据标识符创建验证规则
+     * 根据标识符创建验证规则，参数为实际节点（字段缺失时比较器直接报告缺失，不执行规则）
      */
-    private static CustomValidation createValidation(String marker) {
+    private static Predicate<JsonNode> createValidation(String marker) {
         switch (marker) {
             case IGNORE:
                 return actual -> true;
 
             case NOT_NULL:
-                return actual -> actual != null;
+                return EnhancedSmartJsonAssert::isPresent;
 
             case NULL:
-                return actual -> actual == null;
+                return actual -> actual == null || actual.isNull() || actual.isMissingNode();
 
             case NOT_EMPTY:
                 return actual -> {
-                    if (actual == null) return false;
-                    String str = actual.toString();
-                    return !str.isEmpty() && !"{}".equals(str) && !"[]".equals(str);
+                    if (!isPresent(actual)) return false;
+                    if (actual.isContainerNode()) return actual.size() > 0;
+                    return !actual.asText().isEmpty();
                 };
 
             case IS_NUMBER:
-                return actual -> actual instanceof Number;
+                return actual -> actual != null && actual.isNumber();
 
             case IS_STRING:
-                return actual -> actual instanceof String;
+                return actual -> actual != null && actual.isTextual();
 
             case IS_BOOLEAN:
-                return actual -> actual instanceof Boolean;
+                return actual -> actual != null && actual.isBoolean();
 
             case IS_ARRAY:
-                return actual -> actual instanceof JSONArray;
+                return actual -> actual != null && actual.isArray();
 
             case IS_OBJECT:
-                return actual -> actual instanceof JSONObject;
+                return actual -> actual != null && actual.isObject();
 
             case IS_EMAIL:
-                return actual -> actual != null &&
-                        EMAIL_PATTERN.matcher(actual.toString()).matches();
+                return matching(EMAIL_PATTERN);
 
             case IS_PHONE:
-                return actual -> actual != null &&
-                        PHONE_PATTERN.matcher(actual.toString()).matches();
+                return matching(PHONE_PATTERN);
 
             case IS_ID_CARD:
-                return actual -> actual != null &&
-                        ID_CARD_PATTERN.matcher(actual.toString()).matches();
+                return matching(ID_CARD_PATTERN);
 
             case IS_URL:
-                return actual -> actual != null &&
-                        URL_PATTERN.matcher(actual.toString()).matches();
+                return matching(URL_PATTERN);
 
             case IS_IP:
-                return actual -> actual != null &&
-                        IP_PATTERN.matcher(actual.toString()).matches();
+                return matching(IP_PATTERN);
 
             case IS_UUID:
-                return actual -> actual != null &&
-                        UUID_PATTERN.matcher(actual.toString()).matches();
+                return matching(UUID_PATTERN);
 
             case IS_DATE:
-                return actual -> actual != null &&
-                        DATE_PATTERN.matcher(actual.toString()).matches();
+                return matching(DATE_PATTERN);
 
             case IS_DATETIME:
-                return actual -> actual != null &&
-                        DATETIME_PATTERN.matcher(actual.toString()).matches();
+                return matching(DATETIME_PATTERN);
 
             case IS_TIMESTAMP:
-                return actual -> actual != null &&
-                        TIMESTAMP_PATTERN.matcher(actual.toString()).matches();
+                return matching(TIMESTAMP_PATTERN);
         }
 
         // 处理带参数的标识符
         if (marker.startsWith(MATCHES)) {
             String regex = marker.substring(MATCHES.length(), marker.length() - 1);
-            return actual -> actual != null && actual.toString().matches(regex);
+            return matching(Pattern.compile(regex));
         }
 
         if (marker.startsWith(IN)) {
             String values = marker.substring(IN.length(), marker.length() - 1);
             String[] allowed = values.split(",");
             Set<String> allowedSet = new HashSet<>(Arrays.asList(allowed));
-            return actual -> actual != null && allowedSet.contains(actual.toString());
-        }
-
-        if (marker.startsWith(GT)) {
-            double threshold = Double.parseDouble(marker.substring(GT.length(), marker.length() - 1));
-            return actual -> {
-                if (actual == null) return false;
-                try {
-                    return Double.parseDouble(actual.toString()) > threshold;
-                } catch (NumberFormatException e) {
-                    return false;
-                }
-            };
-        }
-
-        if (marker.startsWith(LT)) {
-            double threshold = Double.parseDouble(marker.substring(LT.length(), marker.length() - 1));
-            return actual -> {
-                if (actual == null) return false;
-                try {
-                    return Double.parseDouble(actual.toString()) < threshold;
-                } catch (NumberFormatException e) {
-                    return false;
-                }
-            };
+            return actual -> isPresent(actual) && allowedSet.contains(text(actual));
         }
 
         if (marker.startsWith(GTE)) {
             double threshold = Double.parseDouble(marker.substring(GTE.length(), marker.length() - 1));
-            return actual -> {
-                if (actual == null) return false;
-                try {
-                    return Double.parseDouble(actual.toString()) >= threshold;
-                } catch (NumberFormatException e) {
-                    return false;
-                }
-            };
+            return numeric(value -> value >= threshold);
+        }
+
+        if (marker.startsWith(GT)) {
+            double threshold = Double.parseDouble(marker.substring(GT.length(), marker.length() - 1));
+            return numeric(value -> value > threshold);
         }
 
         if (marker.startsWith(LTE)) {
             double threshold = Double.parseDouble(marker.substring(LTE.length(), marker.length() - 1));
-            return actual -> {
-                if (actual == null) return false;
-                try {
-                    return Double.parseDouble(actual.toString()) <= threshold;
-                } catch (NumberFormatException e) {
-                    return false;
-                }
-            };
+            return numeric(value -> value <= threshold);
+        }
+
+        if (marker.startsWith(LT)) {
+            double threshold = Double.parseDouble(marker.substring(LT.length(), marker.length() - 1));
+            return numeric(value -> value < threshold);
         }
 
         if (marker.startsWith(LENGTH)) {
@@ -304,8 +318,8 @@ public class EnhancedSmartJsonAssert {
             int min = Integer.parseInt(parts[0]);
             int max = parts.length > 1 ? Integer.parseInt(parts[1]) : min;
             return actual -> {
-                if (actual == null) return false;
-                int len = actual.toString().length();
+                if (!isPresent(actual)) return false;
+                int len = actual.isContainerNode() ? actual.size() : actual.asText().length();
                 return len >= min && len <= max;
             };
         }
@@ -315,78 +329,40 @@ public class EnhancedSmartJsonAssert {
             String[] parts = range.split(",");
             double min = Double.parseDouble(parts[0]);
             double max = Double.parseDouble(parts[1]);
-            return actual -> {
-                if (actual == null) return false;
-                try {
-                    double value = Double.parseDouble(actual.toString());
-                    return value >= min && value <= max;
-                } catch (NumberFormatException e) {
-                    return false;
-                }
-            };
+            return numeric(value -> value >= min && value <= max);
         }
 
         return null;
     }
 
+    private static boolean isPresent(JsonNode actual) {
+        return actual != null && !actual.isNull() && !actual.isMissingNode();
+    }
+
     /**
-     * 移除JSON中的所有标识符，返回纯净的JSON用于结构验证
+     * 值节点取文本（数字为其字面量），对象/数组取 JSON 文本
      */
-    private static String removeMarkers(String json) throws Exception {
-        JsonNode root = objectMapper.readTree(json);
-        JsonNode cleaned = removeMarkersFromNode(root);
-        return objectMapper.writeValueAsString(cleaned);
+    private static String text(JsonNode actual) {
+        return actual.isValueNode() ? actual.asText() : actual.toString();
     }
 
-    private static JsonNode removeMarkersFromNode(JsonNode node) {
-        if (node.isObject()) {
-            ObjectNode objectNode = objectMapper.createObjectNode();
-            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
-
-            while (fields.hasNext()) {
-                Map.Entry<String, JsonNode> field = fields.next();
-                String fieldName = field.getKey();
-                JsonNode value = field.getValue();
-
-                if (value.isTextual() && isMarker(value.asText())) {
-                    // 根据标识符类型设置合适的默认值
-                    String marker = value.asText();
-                    if (marker.equals(IS_ARRAY) || marker.equals(NOT_EMPTY) || marker.equals(IGNORE)) {
-                        objectNode.putArray(fieldName);
-                    } else if (marker.equals(IS_OBJECT)) {
-                        objectNode.putObject(fieldName);
-                    } else if (marker.equals(IS_NUMBER) || marker.startsWith(RANGE) ||
-                            marker.startsWith(GT) || marker.startsWith(GTE) ||
-                            marker.startsWith(LT) || marker.startsWith(LTE)) {
-                        objectNode.put(fieldName, 0);
-                    } else if (marker.equals(IS_BOOLEAN)) {
-                        objectNode.put(fieldName, false);
-                    } else if (marker.equals(NULL)) {
-                        objectNode.putNull(fieldName);
-                    } else {
-                        objectNode.put(fieldName, "");
-                    }
-                } else {
-                    objectNode.set(fieldName, removeMarkersFromNode(value));
-                }
-            }
-            return objectNode;
-        } else if (node.isArray()) {
-            com.fasterxml.jackson.databind.node.ArrayNode arrayNode = objectMapper.createArrayNode();
-            for (JsonNode item : node) {
-                arrayNode.add(removeMarkersFromNode(item));
-            }
-            return arrayNode;
-        }
-        return node;
+    private static Predicate<JsonNode> matching(Pattern pattern) {
+        return actual -> isPresent(actual) && pattern.matcher(text(actual)).matches();
     }
 
     /**
-     * 自定义验证函数接口
+     * 数字节点直接取值，文本节点按数字解析
      */
-    @FunctionalInterface
-    private interface CustomValidation {
-        boolean validate(Object actualValue);
+    private static Predicate<JsonNode> numeric(DoublePredicate condition) {
+        return actual -> {
+            if (!isPresent(actual)) return false;
+            if (actual.isNumber()) return condition.test(actual.doubleValue());
+            try {
+                return condition.test(Double.parseDouble(actual.asText()));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        };
     }
 
     // ==================== 便捷方法 ====================
@@ -414,7 +390,6 @@ public class EnhancedSmartJsonAssert {
      */
     public static void smartAssert(String actualJson, String expectedJson,
                                    JSONCompareMode mode) throws Exception {
-        // 这里简化处理，实际可以扩展支持不同模式
-        smartAssert(actualJson, expectedJson);
+        plan(expectedJson).verify(objectMapper.readTree(actualJson), JsonTreeComparator.Mode.valueOf(mode.name()));
     }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.company.ecommerce.assertion;
 
+import com.company.ecommerce.utils.JsonCodecRegistry;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.*;
 import java.util.function.BiPredicate;
@@ -12,7 +14,7 @@ import java.util.function.BiPredicate;
  */
 public class JacksonFlexibleAssert {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper objectMapper = JsonCodecRegistry.mapper();
 
     public static class JsonCompareOptions {
         private Set<String> ignoreFields = new HashSet<>();
@@ -138,27 +140,40 @@ public class JacksonFlexibleAssert {
         List<String> errors = new ArrayList<>();
 
         if (options.ignoreArrayOrder) {
-            // 忽略顺序比较
-            List<JsonNode> expectedList = new ArrayList<>();
-            expected.forEach(expectedList::add);
-            List<JsonNode> actualList = new ArrayList<>();
-            actual.forEach(actualList::add);
+            // 忽略顺序比较：按结构哈希分桶，只在同一桶内逐个深度比较
+            String itemPath = path + "[?]";
+            Set<String> keys = options.ignoreExtraFields ? commonFieldNames(expected) : null;
+            Map<Integer, Deque<Integer>> buckets = new HashMap<>();
+            for (int j = 0; j < actual.size(); j++) {
+                buckets.computeIfAbsent(structuralHash(actual.get(j), itemPath, keys, options),
+                        hash -> new ArrayDeque<>()).add(j);
+            }
 
-            for (JsonNode expectedItem : expectedList) {
+            boolean[] matched = new boolean[actual.size()];
+            for (int i = 0; i < expected.size(); i++) {
+                JsonNode expectedItem = expected.get(i);
+                Deque<Integer> bucket = buckets.get(structuralHash(expectedItem, itemPath, keys, options));
                 boolean found = false;
-                for (int j = 0; j < actualList.size(); j++) {
-                    CompareResult result = compareNodes(expectedItem, actualList.get(j),
-                            path + "[?]", options);
-                    if (result.isMatch) {
-                        found = true;
-                        actualList.remove(j);
-                        break;
+                if (bucket != null) {
+                    Iterator<Integer> candidates = bucket.iterator();
+                    while (candidates.hasNext()) {
+                        int j = candidates.next();
+                        if (compareNodes(expectedItem, actual.get(j), itemPath, options).isMatch) {
+                            found = true;
+                            matched[j] = true;
+                            candidates.remove();
+                            break;
+                        }
                     }
                 }
                 if (!found) {
-                    errors.add(path + ": 找不到匹配的元素: " + expectedItem);
+                    errors.add(path + "[" + i + "]: 找不到匹配的元素: " + expectedItem);
                 }
             }
+
+            if (!errors.isEmpty()) {
+                errors.add(describeUnmatched(actual, matched, path));
+            }
         } else {
             // 按顺序比较
             for (int i = 0; i < expected.size(); i++) {
@@ -174,6 +189,79 @@ public class JacksonFlexibleAssert {
                 CompareResult.failure(String.join("\n", errors));
     }
 
+    /**
+     * 忽略顺序比较使用的结构哈希
+     * 能匹配的两个元素哈希必然相同：字段顺序不影响哈希，忽略字段和自定义比较器所在路径不参与哈希，
+     * 允许多余字段时只对所有预期元素共有的字段求哈希，嵌套数组（包含语义）只按类型求哈希。
+     * 哈希相同不代表匹配，仍需深度比较
+     */
+    private static int structuralHash(JsonNode node, String path, Set<String> keys, JsonCompareOptions options) {
+        if (options.ignoreFields.contains(path) || options.customComparators.containsKey(path)) {
+            return 0;
+        }
+        if (node.isValueNode()) {
+            return node.hashCode();
+        }
+        if (node.isArray()) {
+            return JsonNodeType.ARRAY.hashCode();
+        }
+
+        int hash = JsonNodeType.OBJECT.hashCode();
+        if (keys != null) {
+            for (String key : keys) {
+                JsonNode child = node.get(key);
+                hash += key.hashCode() ^ (child == null ? -1 : structuralHash(child, path + "." + key, null, options));
+            }
+        } else if (!options.ignoreExtraFields) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                hash += field.getKey().hashCode()
+                        ^ structuralHash(field.getValue(), path + "." + field.getKey(), null, options);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 所有预期元素共有的字段名；存在非对象元素时返回空集合
+     */
+    private static Set<String> commonFieldNames(ArrayNode expected) {
+        Set<String> common = null;
+        for (JsonNode item : expected) {
+            if (!item.isObject()) {
+                return Collections.emptySet();
+            }
+            Set<String> names = new HashSet<>();
+            item.fieldNames().forEachRemaining(names::add);
+            if (common == null) {
+                common = names;
+            } else {
+                common.retainAll(names);
+            }
+        }
+        return common == null ? Collections.emptySet() : common;
+    }
+
+    private static final int MAX_UNMATCHED_SHOWN = 5;
+
+    private static String describeUnmatched(ArrayNode actual, boolean[] matched, String path) {
+        List<String> unmatched = new ArrayList<>();
+        int count = 0;
+        for (int j = 0; j < matched.length; j++) {
+            if (!matched[j]) {
+                if (count++ < MAX_UNMATCHED_SHOWN) {
+                    unmatched.add(path + "[" + j + "] " + actual.get(j));
+                }
+            }
+        }
+        String message = String.format("%s: 未被匹配的实际元素共 %d 个", path, count);
+        if (count > 0) {
+            message += "，如:\n  " + String.join("\n  ", unmatched) + (count > MAX_UNMATCHED_SHOWN ? "\n  ..." : "");
+        }
+        return message;
+    }
+
     private static class CompareResult {
         boolean isMatch;
         String message;
@@ -0,0 +1,512 @@
+package com.company.ecommerce.assertion;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * 基于 Jackson JsonNode 树的 JSON 比较器
+ * 直接比较 Jackson 树，不再转换为 org.json；一次遍历收集全部差异，而不是遇到第一个差异就停止。
+ *
+ * 比较模式与 JSONAssert 的 JSONCompareMode 一一对应：
+ * 1. extensible：实际 JSON 允许出现预期中没有的字段
+ * 2. strictOrder：数组按顺序比较；否则数组元素与顺序无关（长度仍需一致）
+ *
+ * 预期树中的节点可以绑定验证规则（按节点实例绑定，与路径无关），比较到该节点时改为执行验证规则；
+ * 忽略路径支持通配：* 匹配一级字段名，[*] 匹配任意下标，** 匹配任意层级，如 data[*].createTime、**.id
+ *
+ * 除比较两棵树外，也支持直接比较 JsonParser 的 token 流（见 {@link #compare(JsonNode, JsonParser)}），
+ * 用于超大响应
+ *
+ * 构建完成后不可变，可跨线程复用
+ */
+public final class JsonTreeComparator {
+
+    public enum Mode {
+        STRICT(false, true),
+        LENIENT(true, false),
+        NON_EXTENSIBLE(false, false),
+        STRICT_ORDER(true, true);
+
+        private final boolean extensible;
+        private final boolean strictOrder;
+
+        Mode(boolean extensible, boolean strictOrder) {
+            this.extensible = extensible;
+            this.strictOrder = strictOrder;
+        }
+    }
+
+    private final Mode mode;
+    private final Set<String> ignoredPaths;
+    private final List<Pattern> ignoredPatterns;
+    private final Map<JsonNode, Predicate<JsonNode>> validators;
+
+    private JsonTreeComparator(Mode mode, Set<String> ignoredPaths, List<Pattern> ignoredPatterns,
+                               Map<JsonNode, Predicate<JsonNode>> validators) {
+        this.mode = mode;
+        this.ignoredPaths = ignoredPaths;
+        this.ignoredPatterns = ignoredPatterns;
+        this.validators = validators;
+    }
+
+    public static JsonTreeComparator of(Mode mode) {
+        return builder(mode).build();
+    }
+
+    public static Builder builder(Mode mode) {
+        return new Builder(mode);
+    }
+
+    /**
+     * 比较并返回全部差异，无差异时返回空列表
+     */
+    public List<Difference> compare(JsonNode expected, JsonNode actual) {
+        List<Difference> differences = new ArrayList<>();
+        compareNode(expected, actual, Path.ROOT, differences);
+        return differences;
+    }
+
+    /**
+     * 比较，有差异时抛出包含全部差异的 AssertionError
+     */
+    public void assertEquals(JsonNode expected, JsonNode actual) {
+        List<Difference> differences = compare(expected, actual);
+        if (!differences.isEmpty()) {
+            throw new AssertionError(describe(differences));
+        }
+    }
+
+    public static String describe(List<Difference> differences) {
+        StringBuilder sb = new StringBuilder("JSON比较失败，共 ").append(differences.size()).append(" 处差异:");
+        for (Difference difference : differences) {
+            sb.append("\n  ").append(difference);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 流式比较：按 token 流读取实际 JSON，只缓冲必须整体比较的子树
+     * （绑定了验证规则的节点、忽略顺序比较的数组、标量值），其余部分边读边比较，内存占用与响应大小无关
+     * @param actual 尚未读取任何 token 的解析器，需由 ObjectMapper 创建（缓冲子树时需要）
+     */
+    public List<Difference> compare(JsonNode expected, JsonParser actual) throws IOException {
+        List<Difference> differences = new ArrayList<>();
+        if (actual.nextToken() == null) {
+            differences.add(new Difference(Path.ROOT, "实际 JSON 为空，预期: " + expected));
+        } else {
+            streamNode(expected, actual, Path.ROOT, differences);
+        }
+        return differences;
+    }
+
+    public void assertEquals(JsonNode expected, JsonParser actual) throws IOException {
+        List<Difference> differences = compare(expected, actual);
+        if (!differences.isEmpty()) {
+            throw new AssertionError(describe(differences));
+        }
+    }
+
+    // ==================== 比较 ====================
+
+    /**
+     * @param actual 实际节点，字段缺失时为 null
+     */
+    private void compareNode(JsonNode expected, JsonNode actual, Path path, List<Difference> differences) {
+        if (isIgnored(path)) {
+            return;
+        }
+
+        // 字段缺失先于验证规则判断，${ignore}/${null} 也要求字段存在（与 JSONAssert 一致）
+        if (actual == null) {
+            differences.add(new Difference(path, "字段缺失，预期: " + expected));
+            return;
+        }
+
+        Predicate<JsonNode> validator = validators.get(expected);
+        if (validator != null) {
+            if (!validator.test(actual)) {
+                differences.add(new Difference(path, "不满足 " + expected.asText() + "，实际: " + render(actual)));
+            }
+            return;
+        }
+
+        if (expected.isObject() && actual.isObject()) {
+            compareObjects(expected, actual, path, differences);
+        } else if (expected.isArray() && actual.isArray()) {
+            if (mode.strictOrder) {
+                compareArraysInOrder(expected, actual, path, differences);
+            } else {
+                compareArraysIgnoringOrder(expected, actual, path, differences);
+            }
+        } else if (!valuesEqual(expected, actual)) {
+            if (expected.getNodeType() != actual.getNodeType()
+                    && !(expected.isNumber() && actual.isNumber())) {
+                differences.add(new Difference(path, "类型不匹配 - 预期: " + expected.getNodeType()
+                        + " " + expected + ", 实际: " + actual.getNodeType() + " " + actual));
+            } else {
+                differences.add(new Difference(path, "值不匹配 - 预期: " + expected + ", 实际: " + actual));
+            }
+        }
+    }
+
+    private void compareObjects(JsonNode expected, JsonNode actual, Path path, List<Difference> differences) {
+        Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            compareNode(field.getValue(), actual.get(field.getKey()), path.field(field.getKey()), differences);
+        }
+
+        if (!mode.extensible) {
+            Iterator<String> names = actual.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!expected.has(name)) {
+                    Path fieldPath = path.field(name);
+                    if (!isIgnored(fieldPath)) {
+                        differences.add(new Difference(fieldPath, "多余字段: " + actual.get(name)));
+                    }
+                }
+            }
+        }
+    }
+
+    private void compareArraysInOrder(JsonNode expected, JsonNode actual, Path path, List<Difference> differences) {
+        if (expected.size() != actual.size()) {
+            differences.add(new Difference(path, "数组长度不匹配 - 预期: " + expected.size() + ", 实际: " + actual.size()));
+        }
+        int common = Math.min(expected.size(), actual.size());
+        for (int i = 0; i < common; i++) {
+            compareNode(expected.get(i), actual.get(i), path.index(i), differences);
+        }
+    }
+
+    /**
+     * 与顺序无关的数组比较：先尝试同下标元素（大多数数组本身有序），再在剩余元素中查找
+     */
+    private void compareArraysIgnoringOrder(JsonNode expected, JsonNode actual, Path path,
+                                            List<Difference> differences) {
+        if (expected.size() != actual.size()) {
+            differences.add(new Difference(path, "数组长度不匹配 - 预期: " + expected.size() + ", 实际: " + actual.size()));
+        }
+
+        boolean[] used = new boolean[actual.size()];
+        List<Integer> unmatched = new ArrayList<>();
+        for (int i = 0; i < expected.size(); i++) {
+            if (i < actual.size() && !used[i] && matches(expected.get(i), actual.get(i), path.index(i))) {
+                used[i] = true;
+            } else {
+                unmatched.add(i);
+            }
+        }
+
+        int searchFrom = 0;
+        for (Iterator<Integer> it = unmatched.iterator(); it.hasNext(); ) {
+            int i = it.next();
+            JsonNode expectedItem = expected.get(i);
+            for (int j = searchFrom; j < actual.size(); j++) {
+                if (!used[j] && matches(expectedItem, actual.get(j), path.index(j))) {
+                    used[j] = true;
+                    it.remove();
+                    break;
+                }
+            }
+            while (searchFrom < used.length && used[searchFrom]) {
+                searchFrom++;
+            }
+        }
+
+        for (int i : unmatched) {
+            differences.add(new Difference(path.index(i), "数组中找不到匹配的元素: " + expected.get(i)));
+        }
+        for (int j = 0; j < used.length; j++) {
+            if (!used[j]) {
+                differences.add(new Difference(path.index(j), "多余元素: " + actual.get(j)));
+            }
+        }
+    }
+
+    private boolean matches(JsonNode expected, JsonNode actual, Path path) {
+        List<Difference> scratch = new ArrayList<>(0);
+        compareNode(expected, actual, path, scratch);
+        return scratch.isEmpty();
+    }
+
+    // ==================== 流式比较 ====================
+
+    /**
+     * 解析器位于实际值的第一个 token 上，返回时位于该值的最后一个 token 上
+     */
+    private void streamNode(JsonNode expected, JsonParser parser, Path path,
+                            List<Difference> differences) throws IOException {
+        if (isIgnored(path)) {
+            parser.skipChildren();
+            return;
+        }
+        if (validators.containsKey(expected)) {
+            // 验证规则需要完整的实际值
+            compareNode(expected, readValue(parser), path, differences);
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (expected.isObject() && token == JsonToken.START_OBJECT) {
+            streamObject(expected, parser, path, differences);
+        } else if (expected.isArray() && token == JsonToken.START_ARRAY) {
+            if (mode.strictOrder) {
+                streamArrayInOrder(expected, parser, path, differences);
+            } else {
+                // 忽略顺序需要看到全部元素，只缓冲该数组
+                compareNode(expected, readValue(parser), path, differences);
+            }
+        } else if (token.isStructStart()) {
+            parser.skipChildren();
+            differences.add(new Difference(path, "类型不匹配 - 预期: " + expected.getNodeType()
+                    + " " + expected + ", 实际: " + (token == JsonToken.START_OBJECT ? "OBJECT" : "ARRAY")));
+        } else {
+            compareNode(expected, readValue(parser), path, differences);
+        }
+    }
+
+    private void streamObject(JsonNode expected, JsonParser parser, Path path,
+                              List<Difference> differences) throws IOException {
+        Set<String> seen = new HashSet<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            Path fieldPath = path.field(name);
+            parser.nextToken();
+
+            JsonNode expectedValue = expected.get(name);
+            if (expectedValue != null) {
+                seen.add(name);
+                streamNode(expectedValue, parser, fieldPath, differences);
+            } else if (mode.extensible || isIgnored(fieldPath)) {
+                parser.skipChildren();
+            } else {
+                differences.add(new Difference(fieldPath, "多余字段: " + describeSkipped(parser)));
+            }
+        }
+
+        if (seen.size() < expected.size()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!seen.contains(field.getKey())) {
+                    compareNode(field.getValue(), null, path.field(field.getKey()), differences);
+                }
+            }
+        }
+    }
+
+    private void streamArrayInOrder(JsonNode expected, JsonParser parser, Path path,
+                                    List<Difference> differences) throws IOException {
+        int lengthDifferenceAt = differences.size();
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (size < expected.size()) {
+                streamNode(expected.get(size), parser, path.index(size), differences);
+            } else {
+                parser.skipChildren();
+            }
+            size++;
+        }
+        if (size != expected.size()) {
+            differences.add(lengthDifferenceAt, new Difference(path,
+                    "数组长度不匹配 - 预期: " + expected.size() + ", 实际: " + size));
+        }
+    }
+
+    private static JsonNode readValue(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return NullNode.getInstance();
+        }
+        return parser.readValueAsTree();
+    }
+
+    /**
+     * 标量返回其 JSON 文本，对象/数组直接跳过，不缓冲
+     */
+    private static String describeSkipped(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return token == JsonToken.START_OBJECT ? "{...}" : "[...]";
+        }
+        return readValue(parser).toString();
+    }
+
+    /**
+     * 数字按数值比较（1 与 1.0 相等），其余按 Jackson 节点相等
+     */
+    private static boolean valuesEqual(JsonNode expected, JsonNode actual) {
+        if (expected.isNumber() && actual.isNumber()) {
+            return expected.decimalValue().compareTo(actual.decimalValue()) == 0;
+        }
+        return expected.equals(actual);
+    }
+
+    private boolean isIgnored(Path path) {
+        if (ignoredPaths.isEmpty() && ignoredPatterns.isEmpty()) {
+            return false;
+        }
+        String text = path.toString();
+        if (ignoredPaths.contains(text)) {
+            return true;
+        }
+        for (Pattern pattern : ignoredPatterns) {
+            if (pattern.matcher(text).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String render(JsonNode node) {
+        return node == null ? "(缺失)" : node.toString();
+    }
+
+    // ==================== 构建 ====================
+
+    public static final class Builder {
+
+        private final Mode mode;
+        private final Set<String> ignoredPaths = new HashSet<>();
+        private final List<Pattern> ignoredPatterns = new ArrayList<>();
+        private final Map<JsonNode, Predicate<JsonNode>> validators = new IdentityHashMap<>();
+
+        private Builder(Mode mode) {
+            this.mode = mode;
+        }
+
+        /**
+         * 忽略路径（如 data.id、data[*].createTime、**.updateTime）
+         */
+        public Builder ignore(String... paths) {
+            for (String path : paths) {
+                if (path.indexOf('*') >= 0) {
+                    ignoredPatterns.add(toPattern(path));
+                } else {
+                    ignoredPaths.add(path);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 为预期树中的某个节点绑定验证规则，参数为对应的实际节点；字段缺失时不执行规则，直接报告字段缺失
+         */
+        public Builder validate(JsonNode expectedNode, Predicate<JsonNode> validator) {
+            validators.put(expectedNode, validator);
+            return this;
+        }
+
+        public JsonTreeComparator build() {
+            return new JsonTreeComparator(mode,
+                    Collections.unmodifiableSet(new HashSet<>(ignoredPaths)),
+                    Collections.unmodifiableList(new ArrayList<>(ignoredPatterns)),
+                    Collections.unmodifiableMap(new IdentityHashMap<>(validators)));
+        }
+
+        private static Pattern toPattern(String path) {
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < path.length(); i++) {
+                char c = path.charAt(i);
+                if (path.startsWith("**", i)) {
+                    regex.append(".*");
+                    i++;
+                } else if (path.startsWith("[*]", i)) {
+                    regex.append("\\[\\d+\\]");
+                    i += 2;
+                } else if (c == '*') {
+                    regex.append("[^.\\[]+");
+                } else if ("\\.[]{}()+-?^$|".indexOf(c) >= 0) {
+                    regex.append('\\').append(c);
+                } else {
+                    regex.append(c);
+                }
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+
+    // ==================== 路径与差异 ====================
+
+    /**
+     * 延迟拼接的路径，只在需要匹配忽略规则或报告差异时生成字符串
+     */
+    private static final class Path {
+
+        private static final Path ROOT = new Path(null, null, -1);
+
+        private final Path parent;
+        private final String field;
+        private final int index;
+        private String text;
+
+        private Path(Path parent, String field, int index) {
+            this.parent = parent;
+            this.field = field;
+            this.index = index;
+        }
+
+        private Path field(String name) {
+            return new Path(this, name, -1);
+        }
+
+        private Path index(int i) {
+            return new Path(this, null, i);
+        }
+
+        @Override
+        public String toString() {
+            if (text == null) {
+                if (parent == null) {
+                    text = "";
+                } else if (field != null) {
+                    String prefix = parent.toString();
+                    text = prefix.isEmpty() ? field : prefix + "." + field;
+                } else {
+                    text = parent + "[" + index + "]";
+                }
+            }
+            return text;
+        }
+    }
+
+    public static final class Difference {
+
+        private final String path;
+        private final String message;
+
+        private Difference(Path path, String message) {
+            this.path = path.toString();
+            this.message = message;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return (path.isEmpty() ? "(根节点)" : path) + ": " + message;
+        }
+    }
+}
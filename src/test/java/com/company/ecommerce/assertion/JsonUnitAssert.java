@@ -1,36 +1,41 @@
 package com.company.ecommerce.assertion;
 
-import org.testng.annotations.Test;
-import org.json.JSONException;
-import org.skyscreamer.jsonassert.JSONAssert;
-import org.skyscreamer.jsonassert.JSONCompareMode;
-import org.skyscreamer.jsonassert.comparator.CustomComparator;
-import org.skyscreamer.jsonassert.comparator.JSONComparator;
+import com.company.ecommerce.utils.JsonCodecRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
 
+/**
+ * JSON 整体比较断言，基于 {@link JsonTreeComparator}，失败时一次列出全部差异
+ */
 public class JsonUnitAssert {
 
+    private static final JsonTreeComparator STRICT = JsonTreeComparator.of(JsonTreeComparator.Mode.STRICT);
+    private static final JsonTreeComparator LENIENT = JsonTreeComparator.of(JsonTreeComparator.Mode.LENIENT);
+
     /**
      * 严格比较：所有字段必须完全匹配
      */
-    public static void assertStrictMatch(String actual, String expected) throws JSONException {
-        JSONAssert.assertEquals(expected, actual, JSONCompareMode.STRICT);
+    public static void assertStrictMatch(String actual, String expected) throws JsonProcessingException {
+        STRICT.assertEquals(JsonCodecRegistry.treeReader().readTree(expected),
+                JsonCodecRegistry.treeReader().readTree(actual));
     }
 
     /**
-     * 非严格比较：忽略数组顺序
+     * 非严格比较：忽略数组顺序，允许多余字段
      */
-    public static void assertLenientMatch(String actual, String expected) throws JSONException {
-        JSONAssert.assertEquals(expected, actual, JSONCompareMode.LENIENT);
+    public static void assertLenientMatch(String actual, String expected) throws JsonProcessingException {
+        LENIENT.assertEquals(JsonCodecRegistry.treeReader().readTree(expected),
+                JsonCodecRegistry.treeReader().readTree(actual));
     }
 
     /**
-     * 自定义比较：可以忽略特定字段
+     * 严格比较，忽略指定路径（支持通配，如 data[*].createTime、**.updateTime）
      */
-    public static void assertWithIgnoreFields(String actual, String expected, String... ignoreFields) throws JSONException {
-        JSONComparator comparator = new CustomComparator(
-                JSONCompareMode.STRICT
-                // 这里可以添加自定义的比较规则
-        );
-        JSONAssert.assertEquals(expected, actual, comparator);
+    public static void assertWithIgnoreFields(String actual, String expected, String... ignoreFields)
+            throws JsonProcessingException {
+        JsonTreeComparator.builder(JsonTreeComparator.Mode.STRICT)
+                .ignore(ignoreFields)
+                .build()
+                .assertEquals(JsonCodecRegistry.treeReader().readTree(expected),
+                        JsonCodecRegistry.treeReader().readTree(actual));
     }
-}
\ No newline at end of file
+}
@@ -3,11 +3,12 @@ package com.company.ecommerce.base;
 
 import com.company.ecommerce.config.ConfigManager;
 import com.company.ecommerce.reporters.AllureManager;
+import com.company.ecommerce.utils.ApiExchange;
 import com.company.ecommerce.utils.ExcelReader;
-import com.fasterxml.jackson.annotation.JsonInclude;
+import com.company.ecommerce.utils.HmacSigner;
+import com.company.ecommerce.utils.HttpClientPool;
+import com.company.ecommerce.utils.JsonCodecRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import io.restassured.RestAssured;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
@@ -16,18 +17,9 @@ import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import org.testng.annotations.BeforeClass;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Iterator;
 import java.util.Map;
 
-import static io.restassured.RestAssured.given;
-
 public abstract class BaseAPITest extends BaseTest {
 
     protected RequestSpecification requestSpec;
@@ -47,35 +39,32 @@ public abstract class BaseAPITest extends BaseTest {
     }
 
     protected Response post(String url,Object requestBody)  {
-        return AllureManager.addManualStepWithLog(String.format("调用 %s API: %s", "post", url), requestBody,() -> {
+        return send(url, requestBody).getResponse();
+    }
 
-                ObjectMapper mapper = new ObjectMapper()
-                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
-                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        String requestBodyToJson;
-        try {
-            requestBodyToJson = mapper.writeValueAsString(requestBody);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize request body", e);
-        }
+    /**
+     * 发送签名请求并返回请求/响应信封，请求体和响应体在整个调用过程中只各保留一份字节
+     */
+    protected ApiExchange send(String url, Object requestBody) {
         // 将请求体包含在签名中
-//        String requestBodyToJson = requestBody != null ? requestBody.toString() : "";
-//        System.out.println(requestBodyToJson);
-//        requestBodyToJson="{\"displayName\":\"巫超航\",\"idCardType\":\"0\",\"idCardNum\":\"130520198508093243\",\"phone\":\"15006713756\",\"authentication\":true,\"passwd\":\"Aa123456\"}";
-
-        String signature = generateHmacSha1Signature(requestBodyToJson);
+        ApiExchange exchange = ApiExchange.of("post", url, requestBody);
+        return AllureManager.addApiStep(String.format("调用 %s API: %s", "post", url), exchange, () ->
+                signedRequest(exchange)
+                        .filter(new RequestLoggingFilter())
+                        .filter(new ResponseLoggingFilter())
+                        .post(url));
+    }
 
-        Response response = given()
+    /**
+     * 构建已签名的请求（不含日志过滤器和 Allure 步骤），压测等高频场景直接使用
+     */
+    protected RequestSpecification signedRequest(ApiExchange exchange) {
+        return HttpClientPool.getInstance().newRequest()
                 .contentType(ContentType.JSON)  // 等同于 "application/json;charset=UTF-8"
                 .header("appid", appId)
                 .header("servicecode", serviceCode)
-                .header("Content-Signature", "HMAC-SHA1 " + signature)
-                .body(requestBodyToJson)
-                .filter(new RequestLoggingFilter())
-                .filter(new ResponseLoggingFilter())
-                .post(url);
-        return response;
-        });
+                .header("Content-Signature", getSigner().headerValue(exchange.getRequestBody()))
+                .body(exchange.getRequestBody());
     }
 
     protected void flow(String sheetname)  {
@@ -88,12 +77,9 @@ public abstract class BaseAPITest extends BaseTest {
 
     protected RequestSpecification givenAuth(Object requestBody)  {
 
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
-                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        String requestBodyToJson;
+        byte[] requestBodyToJson;
         try {
-             requestBodyToJson = mapper.writeValueAsString(requestBody);
+             requestBodyToJson = JsonCodecRegistry.signingWriter().writeValueAsBytes(requestBody);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to serialize request body", e);
         }
@@ -102,13 +88,13 @@ public abstract class BaseAPITest extends BaseTest {
 //        System.out.println(requestBodyToJson);
 //        requestBodyToJson="{\"displayName\":\"巫超航\",\"idCardType\":\"0\",\"idCardNum\":\"130520198508093243\",\"phone\":\"15006713756\",\"authentication\":true,\"passwd\":\"Aa123456\"}";
 
-        String signature = generateHmacSha1Signature(requestBodyToJson);
+        String signature = getSigner().headerValue(requestBodyToJson);
 
-        requestSpec = given()
+        requestSpec = HttpClientPool.getInstance().newRequest()
                 .contentType(ContentType.JSON)  // 等同于 "application/json;charset=UTF-8"
                 .header("appid", appId)
                 .header("servicecode", serviceCode)
-                .header("Content-Signature", "HMAC-SHA1 " + signature)
+                .header("Content-Signature", signature)
 //                .header("Content-Signature", "HMAC-SHA1 " + "JWgwUNvQwdI/oyTiw4DeqYZVdtg=")
                 .filter(new RequestLoggingFilter())
                 .filter(new ResponseLoggingFilter());
@@ -124,7 +110,7 @@ public abstract class BaseAPITest extends BaseTest {
 
     protected RequestSpecification givenAuth() {
 
-        return given()
+        return HttpClientPool.getInstance().newRequest()
                 .contentType(ContentType.JSON)  // 等同于 "application/json;charset=UTF-8"
                 .header("appid", appId)
                 .header("servicecode", serviceCode)
@@ -132,43 +118,11 @@ public abstract class BaseAPITest extends BaseTest {
                 .filter(new ResponseLoggingFilter());
     }
 
-    //    private String generateHmacSha1Signature(String timestamp, String nonce, String body) {
-    private String generateHmacSha1Signature(String body) {
-        try {
-            // 1. 构建待签名字符串（根据实际API文档调整格式）
-            StringBuilder stringToSign = new StringBuilder();
-//            stringToSign.append(timestamp).append("\n");
-//            stringToSign.append(nonce).append("\n");
-//            stringToSign.append(APP_ID).append("\n");
-
-            // 如果存在请求体，添加到签名中
-            if (body != null && !body.isEmpty()) {
-                stringToSign.append(body);
-            }
-
-            // 2. 初始化HMAC-SHA1
-            Mac mac = Mac.getInstance(hmacSha1Algorithm);
-            SecretKeySpec keySpec = new SecretKeySpec(
-                    (secretKey + serviceCode).getBytes(StandardCharsets.UTF_8),
-                    hmacSha1Algorithm
-            );
-            mac.init(keySpec);
-//            System.out.println("1111111111111111111111111111"+stringToSign.toString());
-            // 3. 计算签名
-            byte[] hmacBytes = mac.doFinal(
-                    stringToSign.toString().getBytes(StandardCharsets.UTF_8)
-            );
-
-            // 4. Base64编码
-            return Base64.getEncoder().encodeToString(hmacBytes);
-
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("HMAC-SHA1算法不可用", e);
-        } catch (InvalidKeyException e) {
-            throw new RuntimeException("无效的密钥", e);
-        } catch (Exception e) {
-            throw new RuntimeException("HMAC-SHA1签名生成失败", e);
-        }
+    /**
+     * 获取请求签名器
+     */
+    protected static HmacSigner getSigner() {
+        return HmacSigner.forApi();
     }
 
     protected RequestSpecification givenAuth1() {
@@ -2,8 +2,13 @@ package com.company.ecommerce.base;
 
 import com.company.ecommerce.config.ConfigManager;
 import com.company.ecommerce.listeners.AllureTestListener;
+import com.company.ecommerce.listeners.AsyncDbVerificationListener;
 import com.company.ecommerce.reporters.AllureManager;
+import com.company.ecommerce.utils.ApiLatencyRecorder;
+import com.company.ecommerce.utils.AsyncDbVerifier;
 import com.company.ecommerce.utils.DatabaseManager;
+import com.company.ecommerce.utils.HttpClientPool;
+import com.company.ecommerce.utils.JsonCodecRegistry;
 import io.qameta.allure.SeverityLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,7 +17,7 @@ import org.testng.annotations.*;
 
 import java.lang.reflect.Method;
 
-@Listeners(AllureTestListener.class)
+@Listeners({AllureTestListener.class, AsyncDbVerificationListener.class})
 public abstract class BaseTest {
 
     protected static final Logger logger = LoggerFactory.getLogger(BaseTest.class);
@@ -20,7 +25,6 @@ public abstract class BaseTest {
     protected DatabaseManager dbManager;
 //    protected APIUtils apiUtils;
 //    protected TestDataUtils testDataUtils;
-    protected static String hmacSha1Algorithm = "HmacSHA1";
     protected static String secretKey;
     protected static String appId;
     protected static String serviceCode;
@@ -40,6 +44,9 @@ public abstract class BaseTest {
         logger.info("API URL: {}", ConfigManager.getInstance().getApiBaseUrl());
         logger.info("=========================================");
 
+        // 预热 JSON 编解码器
+        JsonCodecRegistry.warmUp();
+
         // 初始化 Allure
         if (ConfigManager.getInstance().getBooleanProperty("allure.enabled", true)) {
             AllureManager.initAllure();
@@ -223,6 +230,9 @@ public abstract class BaseTest {
 
         // 注意：不在这里关闭 dbManager 和 apiUtils，
         // 因为它们可能需要在多个测试方法间复用
+
+        // 释放线程级资源（虚拟线程模式下线程数量很多，不能让线程长期持有连接）
+        DatabaseManager.releaseThreadConnection();
     }
 
     @AfterClass(alwaysRun = true)
@@ -252,9 +262,23 @@ public abstract class BaseTest {
 
     @AfterSuite(alwaysRun = true)
     public void globalCleanup() {
-        logger.info("=========================================");
-        logger.info("Test Suite Completed");
-        logger.info("=========================================");
+        // 输出接口延迟统计
+        ApiLatencyRecorder.dump();
+
+        // 关闭共享 HTTP 连接池
+        HttpClientPool.shutdown();
+
+        try {
+            // 停止异步数据库断言（需在关闭连接池之前）；有未写入测试结果的失败时抛出，使本次运行失败
+            AsyncDbVerifier.shutdown();
+        } finally {
+            // 关闭共享数据库连接池
+            DatabaseManager.shutdownPool();
+
+            logger.info("=========================================");
+            logger.info("Test Suite Completed");
+            logger.info("=========================================");
+        }
     }
 
     // ========== 工具需求检测方法 ==========
@@ -292,6 +316,16 @@ public abstract class BaseTest {
         return dbManager.queryForObject(sql, params);
     }
 
+    /**
+     * 等待数据库查询结果不为 null 的便捷方法（异步落库等最终一致场景），超时则断言失败
+     */
+    protected Object awaitDatabase(String sql, Object... params) {
+        if (dbManager == null) {
+            throw new IllegalStateException("DatabaseManager 未初始化，请先设置 requiresDatabase() 返回 true");
+        }
+        return dbManager.awaitQueryForObject(sql, params);
+    }
+
 //    /**
 //     * 执行 API 调用的便捷方法
 //     */
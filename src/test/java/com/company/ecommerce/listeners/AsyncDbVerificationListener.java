@@ -0,0 +1,47 @@
+package com.company.ecommerce.listeners;
+
+import com.company.ecommerce.utils.AsyncDbVerifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.List;
+
+/**
+ * 异步数据库断言结果回写
+ * 每个方法调用结束后等待该测试在 {@link AsyncDbVerifier} 登记的校验完成，把失败写入测试结果：
+ * 已通过的测试改为失败，已失败的测试把断言错误附加为 suppressed。
+ * afterInvocation 在 TestNG 通知 ITestListener 之前执行，Allure、Surefire 和退出码都以回写后的状态为准；
+ * 等待超时后才完成的失败由 {@link AsyncDbVerifier#shutdown()} 在套件结束时汇总抛出。
+ * 等待会占用测试线程，阻塞时长见 {@link AsyncDbVerifier}
+ */
+public class AsyncDbVerificationListener implements IInvokedMethodListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncDbVerificationListener.class);
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!AsyncDbVerifier.isEnabled()) {
+            return;
+        }
+        AsyncDbVerifier.awaitCompletion(testResult);
+        List<AssertionError> failures = AsyncDbVerifier.takeFailures(testResult);
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        for (AssertionError failure : failures) {
+            if (testResult.getStatus() == ITestResult.SUCCESS) {
+                testResult.setStatus(ITestResult.FAILURE);
+                testResult.setThrowable(failure);
+            } else if (testResult.getThrowable() != null) {
+                testResult.getThrowable().addSuppressed(failure);
+            } else {
+                testResult.setThrowable(failure);
+            }
+        }
+        logger.warn("测试 {} 有 {} 项异步数据库断言失败，已写入测试结果", testResult.getName(), failures.size());
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.ecommerce.listeners;
+
+import com.company.ecommerce.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * 并行数据提供者线程池配置
+ * parallel = true 的数据提供者由 TestNG 的数据提供者线程池分发（默认 10 个线程，与套件 thread-count 无关），
+ * 这里按配置统一设置，无需逐个修改套件 XML：
+ * 1. data.provider.thread.count：线程数，0 表示按 CPU 核数（核数 x 2），未配置时保持套件设置
+ * 2. data.provider.shared.pool：所有并行数据提供者共用一个线程池，总并发不随数据提供者个数叠加
+ */
+public class DataProviderThreadPoolListener implements IAlterSuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataProviderThreadPoolListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        ConfigManager config = ConfigManager.getInstance();
+        int threadCount = config.getIntProperty("data.provider.thread.count", -1);
+        boolean sharedPool = config.getBooleanProperty("data.provider.shared.pool", false);
+        if (threadCount == 0) {
+            threadCount = Runtime.getRuntime().availableProcessors() * 2;
+        }
+
+        for (XmlSuite suite : suites) {
+            if (threadCount > 0) {
+                suite.setDataProviderThreadCount(threadCount);
+            }
+            if (sharedPool) {
+                suite.setShareThreadPoolForDataProviders(true);
+            }
+            logger.info("套件 {} 数据提供者线程数: {}{}", suite.getName(), suite.getDataProviderThreadCount(),
+                    sharedPool ? "（共享线程池）" : "");
+        }
+    }
+}
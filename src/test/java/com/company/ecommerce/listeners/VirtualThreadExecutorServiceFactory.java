@@ -0,0 +1,55 @@
+package com.company.ecommerce.listeners;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestNG 线程池工厂
+ * 当前套件开启虚拟线程模式时，TestNG 的工作线程改为 Java 21 虚拟线程（并发数仍由 thread-count 控制）；
+ * 其他套件与 TestNG 默认行为一致
+ *
+ * 通过 surefire 属性 threadpoolfactoryclass 注册，由 {@link VirtualThreadSuiteListener} 决定哪些套件开启。
+ * 开启与否按套件判断：套件开始运行时记录当前套件名（可继承的线程变量，套件内的工作线程和数据提供者线程都能看到），
+ * 创建线程池时只有当前套件在开启列表中才使用虚拟线程，同一次运行中的 UI 等其他套件不受影响
+ */
+public class VirtualThreadExecutorServiceFactory implements IExecutorServiceFactory {
+
+    private static final Set<String> enabledSuites = ConcurrentHashMap.newKeySet();
+    private static final InheritableThreadLocal<String> currentSuite = new InheritableThreadLocal<>();
+
+    public static void enable(String suiteName) {
+        enabledSuites.add(suiteName);
+    }
+
+    public static boolean isEnabled(String suiteName) {
+        return suiteName != null && enabledSuites.contains(suiteName);
+    }
+
+    /**
+     * 标记当前线程（及其后创建的子线程）正在运行的套件
+     */
+    static void enterSuite(String suiteName) {
+        currentSuite.set(suiteName);
+    }
+
+    static void exitSuite() {
+        currentSuite.remove();
+    }
+
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime,
+                                  TimeUnit unit, BlockingQueue<Runnable> workQueue,
+                                  ThreadFactory threadFactory) {
+        ThreadFactory factory = isEnabled(currentSuite.get())
+                ? Thread.ofVirtual().name("testng-vt-", 0).factory()
+                : threadFactory;
+        return new ThreadPoolExecutor(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, factory);
+    }
+}
@@ -0,0 +1,94 @@
+package com.company.ecommerce.listeners;
+
+import com.company.ecommerce.base.BaseAPITest;
+import com.company.ecommerce.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+
+/**
+ * 虚拟线程执行模式监听器
+ * 开启方式（任选其一）：
+ * 1. 套件参数 &lt;parameter name="api.virtual.threads" value="true"/&gt;
+ * 2. 配置项 / 系统属性 api.virtual.threads.enabled=true
+ *
+ * 只有当套件中所有测试类都继承自 BaseAPITest 时才会开启，开启后按
+ * api.virtual.threads.count 提升并发数，工作线程由 {@link VirtualThreadExecutorServiceFactory} 创建为虚拟线程。
+ * 开启只对该套件生效：套件开始/结束时通知线程池工厂当前运行的套件
+ */
+public class VirtualThreadSuiteListener implements IAlterSuiteListener, ISuiteListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadSuiteListener.class);
+
+    public static final String SUITE_PARAMETER = "api.virtual.threads";
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        ConfigManager config = ConfigManager.getInstance();
+
+        for (XmlSuite suite : suites) {
+            boolean enabled = Boolean.parseBoolean(suite.getParameter(SUITE_PARAMETER))
+                    || config.getBooleanProperty("api.virtual.threads.enabled", false);
+            if (!enabled) {
+                continue;
+            }
+
+            if (!isApiOnlySuite(suite)) {
+                logger.warn("套件 {} 包含非 API 测试类，不启用虚拟线程模式", suite.getName());
+                continue;
+            }
+
+            int threadCount = config.getIntProperty("api.virtual.threads.count", 200);
+            if (suite.getParallel() == null || suite.getParallel() == XmlSuite.ParallelMode.NONE) {
+                suite.setParallel(XmlSuite.ParallelMode.METHODS);
+            }
+            suite.setThreadCount(threadCount);
+            VirtualThreadExecutorServiceFactory.enable(suite.getName());
+
+            logger.info("✅ 套件 {} 启用虚拟线程模式，并发数: {}", suite.getName(), threadCount);
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        VirtualThreadExecutorServiceFactory.enterSuite(suite.getName());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        VirtualThreadExecutorServiceFactory.exitSuite();
+    }
+
+    /**
+     * 判断套件中的测试类是否都继承自 BaseAPITest
+     */
+    private boolean isApiOnlySuite(XmlSuite suite) {
+        boolean hasApiClass = false;
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                Class<?> testClass;
+                try {
+                    testClass = xmlClass.getSupportClass();
+                } catch (RuntimeException e) {
+                    // 无法加载的类由 TestNG 自行报错，这里忽略
+                    continue;
+                }
+                if (testClass == null) {
+                    continue;
+                }
+                if (!BaseAPITest.class.isAssignableFrom(testClass)) {
+                    return false;
+                }
+                hasApiClass = true;
+            }
+        }
+        return hasApiClass;
+    }
+}
@@ -1,7 +1,9 @@
 package com.company.ecommerce.reporters;
 
+import com.company.ecommerce.utils.ApiExchange;
 import com.company.ecommerce.utils.JsonUtils;
 import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
 import io.qameta.allure.Attachment;
 import io.qameta.allure.Step;
 import io.qameta.allure.model.Status;
@@ -19,6 +21,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Supplier;
 
@@ -166,6 +169,72 @@ public class AllureManager {
 
 
 
+    /**
+     * API 调用步骤：请求/响应附件直接使用信封中的字节，不再重复序列化
+     */
+    public static ApiExchange addApiStep(String stepName, ApiExchange exchange, Supplier<Response> action) {
+        String uuid = UUID.randomUUID().toString();
+        StepResult stepResult = new StepResult().setName(stepName);
+
+        try {
+            Allure.getLifecycle().startStep(uuid, stepResult);
+            // 记录请求参数
+            Allure.addAttachment("请求参数", "application/json", exchange.requestBodyStream(), ".json");
+
+            exchange.complete(action.get());
+            // 记录返回值
+            Allure.addAttachment("返回结果", "application/json", exchange.responseBodyStream(), ".json");
+
+            Allure.getLifecycle().updateStep(uuid, s -> s.setStatus(Status.PASSED));
+            return exchange;
+        } catch (Throwable e) {
+            Allure.getLifecycle().updateStep(uuid, s -> s
+                    .setStatus(Status.FAILED)
+                    .setStatusDetails(ResultsUtils.getStatusDetails(e).orElse(null)));
+            throw e;
+        } finally {
+            Allure.getLifecycle().stopStep(uuid);
+        }
+    }
+
+    /**
+     * 包装在其他线程执行的任务，使工作线程中创建的步骤挂在调用线程当前的用例/步骤下
+     * Allure 只能把用例设为其他线程的上下文（setCurrentTestCase 不接受步骤 UUID）：
+     * 调用线程位于步骤中时，工作线程先在该步骤下创建名为 stepName 的步骤，任务中的步骤挂在它下面
+     */
+    public static Runnable withCurrentContext(String stepName, Runnable task) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        Optional<String> testCaseUuid = lifecycle.getCurrentTestCase();
+        if (!testCaseUuid.isPresent()) {
+            return task;
+        }
+        String caseUuid = testCaseUuid.get();
+        String parentUuid = lifecycle.getCurrentTestCaseOrStep().orElse(caseUuid);
+        if (parentUuid.equals(caseUuid)) {
+            return () -> {
+                lifecycle.setCurrentTestCase(caseUuid);
+                task.run();
+            };
+        }
+
+        return () -> {
+            lifecycle.setCurrentTestCase(caseUuid);
+            String uuid = UUID.randomUUID().toString();
+            lifecycle.startStep(parentUuid, uuid, new StepResult().setName(stepName));
+            try {
+                task.run();
+                lifecycle.updateStep(uuid, s -> s.setStatus(Status.PASSED));
+            } catch (Throwable e) {
+                lifecycle.updateStep(uuid, s -> s
+                        .setStatus(Status.FAILED)
+                        .setStatusDetails(ResultsUtils.getStatusDetails(e).orElse(null)));
+                throw e;
+            } finally {
+                lifecycle.stopStep(uuid);
+            }
+        };
+    }
+
     /**
      * 添加截图到报告
      */
@@ -17,8 +17,8 @@ import java.lang.reflect.Method;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Extent Reports 管理类
@@ -31,7 +31,7 @@ public class ExtentReportManager {
     private static final SimpleDateFormat DISPLAY_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
     private static ExtentReports extent;
-    private static Map<String, ExtentTest> testMap = new HashMap<>();
+    private static Map<String, ExtentTest> testMap = new ConcurrentHashMap<>();
     private static ThreadLocal<ExtentTest> test = new ThreadLocal<>();
     private static String reportPath;
 
@@ -502,7 +502,8 @@ public class ExtentReportManager {
      * 获取当前线程的键
      */
     private static String getCurrentThreadKey() {
-        return Thread.currentThread().getName() + "_" + Thread.currentThread().getId();
+        // 虚拟线程默认没有名称，以线程 ID 保证唯一
+        return Thread.currentThread().getName() + "_" + Thread.currentThread().threadId();
     }
 
     /**
@@ -2,10 +2,9 @@ package com.company.ecommerce.ui;
 
 import com.company.ecommerce.base.BaseUITest;
 import com.company.ecommerce.ui.pages.ContractListPage;
+import com.company.ecommerce.utils.JsonCodecRegistry;
 import com.company.ecommerce.utils.testdata.TestDataProvider;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -26,7 +25,7 @@ public class ContractListTests extends BaseUITest {
     @Test(dataProvider = "uicaseData", dataProviderClass = TestDataProvider.class)
     public void testSearch(String searchMapString,String expectedMapString ) throws JsonProcessingException {
         // 转换为 Map<String, String>
-        Map<String, String> searchMap = new ObjectMapper().readValue(searchMapString, new TypeReference<Map<String, String>>() {});
+        Map<String, String> searchMap = JsonCodecRegistry.stringMapReader().readValue(searchMapString);
         contractListPage.navigateTo();
         contractListPage.searchByMap(searchMapString);
 //        try {
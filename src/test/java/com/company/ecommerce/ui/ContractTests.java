@@ -5,14 +5,12 @@ import com.company.ecommerce.ui.pages.ContractListPage;
 import com.company.ecommerce.ui.pages.CreateContractPage;
 import com.company.ecommerce.ui.pages.SendContractPage;
 import com.company.ecommerce.ui.pages.SignContractPage;
+import com.company.ecommerce.utils.JsonCodecRegistry;
 import com.company.ecommerce.utils.testdata.TestDataProvider;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class ContractTests extends BaseUITest {
@@ -36,7 +34,7 @@ public class ContractTests extends BaseUITest {
     public void testCreateContract(String inputMapString, String expectedMapString ) throws JsonProcessingException {
 //        System.out.println(inputMapString);
         // 转换为 Map<String, String>
-        Map<String, String> inputMap = new ObjectMapper().readValue(inputMapString, new TypeReference<LinkedHashMap<String, String>>() {});
+        Map<String, String> inputMap = JsonCodecRegistry.stringMapReader().readValue(inputMapString);
         createContractPage.navigateTo();
         sendContractPage = createContractPage.createContract(inputMap);
 
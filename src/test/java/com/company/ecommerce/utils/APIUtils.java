@@ -12,8 +12,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 
-import static io.restassured.RestAssured.given;
-
 /**
  * API 测试工具类 - 集成 Allure
  */
@@ -34,8 +32,8 @@ public class APIUtils {
         RestAssured.baseURI = baseUrl;
         RestAssured.useRelaxedHTTPSValidation();
 
-        // 创建请求规范，集成 Allure
-        requestSpec = given()
+        // 创建请求规范（共享连接池），集成 Allure
+        requestSpec = HttpClientPool.getInstance().newRequest()
                 .contentType(ContentType.JSON)
                 .accept(ContentType.JSON)
                 .header("User-Agent", "TestNG-Automation-Framework")
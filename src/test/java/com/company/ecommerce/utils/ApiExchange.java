@@ -0,0 +1,106 @@
+package com.company.ecommerce.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 一次 API 调用的请求/响应信封
+ * 请求体只序列化一次、响应体只读取一次，签名、发送、Allure 附件和断言都复用同一份字节
+ */
+public class ApiExchange {
+
+    private final String method;
+    private final String url;
+    private final byte[] requestBody;
+
+    private Response response;
+    private byte[] responseBody;
+    private String responseText;
+    private JsonNode responseTree;
+
+    private ApiExchange(String method, String url, byte[] requestBody) {
+        this.method = method;
+        this.url = url;
+        this.requestBody = requestBody;
+    }
+
+    /**
+     * 序列化请求体（签名格式：key 排序、忽略 null）并创建信封
+     */
+    public static ApiExchange of(String method, String url, Object requestBody) {
+        try {
+            return new ApiExchange(method, url, JsonCodecRegistry.signingWriter().writeValueAsBytes(requestBody));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize request body", e);
+        }
+    }
+
+    /**
+     * 记录响应，响应体字节只读取这一次
+     */
+    public ApiExchange complete(Response response) {
+        this.response = response;
+        this.responseBody = response.asByteArray();
+        return this;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * 请求体字节（签名与发送使用同一份，调用方不应修改）
+     */
+    public byte[] getRequestBody() {
+        return requestBody;
+    }
+
+    public InputStream requestBodyStream() {
+        return new ByteArrayInputStream(requestBody);
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+
+    public InputStream responseBodyStream() {
+        return new ByteArrayInputStream(responseBody);
+    }
+
+    /**
+     * 响应体文本（首次访问时解码并缓存）
+     */
+    public String getResponseText() {
+        if (responseText == null && responseBody != null) {
+            responseText = new String(responseBody, StandardCharsets.UTF_8);
+        }
+        return responseText;
+    }
+
+    /**
+     * 响应体 JSON 树（首次访问时直接从字节解析并缓存）
+     */
+    public JsonNode getResponseTree() {
+        if (responseTree == null && responseBody != null) {
+            try {
+                responseTree = JsonCodecRegistry.treeReader().readTree(responseBody);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to parse response body", e);
+            }
+        }
+        return responseTree;
+    }
+}
@@ -0,0 +1,282 @@
+package com.company.ecommerce.utils;
+
+import com.company.ecommerce.constants.ContractEndpoint;
+import com.company.ecommerce.reporters.AllureManager;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 接口延迟记录器
+ * 所有经由 {@link HttpClientPool} 发出的请求都会按接口记录耗时，接口以 {@link ContractEndpoint} 常量名为 key
+ * （未定义的地址直接使用路径）。除总耗时外，在可获取时还会记录 DNS 解析、建立连接和首字节时间（TTFB）：
+ * 连接复用时没有 DNS/连接阶段，只计入总耗时和 TTFB
+ *
+ * 套件结束时输出 p50/p90/p99/max 到 test-results/latency/api-latency.json 并附加到 Allure
+ */
+public final class ApiLatencyRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiLatencyRecorder.class);
+
+    private static final String REPORT_DIR = "test-results/latency";
+    private static final String REPORT_FILE = "api-latency.json";
+
+    private static final Map<String, String> ENDPOINT_NAMES = loadEndpointNames();
+    private static final ConcurrentMap<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+    private static final ThreadLocal<RequestTimings> currentTimings = new ThreadLocal<>();
+    private static final Filter FILTER = new TimingFilter();
+
+    private ApiLatencyRecorder() {
+        // 工具类，私有构造器
+    }
+
+    /**
+     * RestAssured 过滤器，由 HttpClientPool.newRequest() 统一添加
+     */
+    public static Filter filter() {
+        return FILTER;
+    }
+
+    /**
+     * 记录一次请求
+     * @param path 请求路径（如 /user/create）
+     * @param totalNanos 总耗时
+     * @param timings 分阶段耗时，不可获取时为 null
+     * @param statusCode HTTP 状态码，请求异常时为 0
+     */
+    public static void record(String path, long totalNanos, RequestTimings timings, int statusCode) {
+        EndpointLatency latency = endpoints.computeIfAbsent(endpointKey(path), key -> new EndpointLatency(path));
+        latency.total.recordNanos(totalNanos);
+        if (statusCode < 200 || statusCode >= 400) {
+            latency.errors.increment();
+        }
+        if (timings != null) {
+            if (timings.dnsNanos > 0) {
+                latency.dns.recordNanos(timings.dnsNanos);
+            }
+            if (timings.connectNanos > 0) {
+                latency.connect.recordNanos(timings.connectNanos);
+            }
+            if (timings.sendStartNanos > 0 && timings.firstByteNanos > 0) {
+                latency.ttfb.recordNanos(timings.firstByteNanos - timings.sendStartNanos);
+            }
+        }
+    }
+
+    /**
+     * 当前线程正在执行的请求的分阶段计时，不在请求中时返回 null
+     */
+    static RequestTimings currentTimings() {
+        return currentTimings.get();
+    }
+
+    /**
+     * 接口路径对应的统计 key：ContractEndpoint 常量名，未定义时使用路径本身
+     */
+    static String endpointKey(String path) {
+        return ENDPOINT_NAMES.getOrDefault(path, path);
+    }
+
+    /**
+     * 汇总为可序列化的结构（单位：毫秒）
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> result = new TreeMap<>();
+        endpoints.forEach((key, latency) -> result.put(key, latency.toMap()));
+        return result;
+    }
+
+    /**
+     * 输出统计文件并附加到 Allure（套件结束时调用），没有记录时不输出
+     */
+    public static void dump() {
+        if (endpoints.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", LocalDateTime.now().toString());
+        report.put("endpoints", snapshot());
+
+        String json;
+        try {
+            json = JsonCodecRegistry.prettyWriter().writeValueAsString(report);
+        } catch (IOException e) {
+            logger.warn("接口延迟统计序列化失败: {}", e.getMessage());
+            return;
+        }
+
+        File dir = new File(REPORT_DIR);
+        if (dir.exists() || dir.mkdirs()) {
+            File file = new File(dir, REPORT_FILE);
+            try {
+                Files.writeString(file.toPath(), json);
+                logger.info("📄 接口延迟统计已写入: {}", file.getAbsolutePath());
+            } catch (IOException e) {
+                logger.warn("写入接口延迟统计失败: {}", e.getMessage());
+            }
+        }
+
+        try {
+            AllureManager.addJsonAttachment(json, "接口延迟统计");
+        } catch (RuntimeException e) {
+            logger.warn("接口延迟统计附加到 Allure 失败: {}", e.getMessage());
+        }
+        logSummary();
+    }
+
+    private static void logSummary() {
+        logger.info(String.format("%-36s %7s %7s %9s %9s %9s %9s",
+                "endpoint", "count", "errors", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)"));
+        new TreeMap<>(endpoints).forEach((key, latency) -> logger.info(String.format(
+                "%-36s %7d %7d %9.2f %9.2f %9.2f %9.2f",
+                key, latency.total.getCount(), latency.errors.sum(),
+                millis(latency.total.getPercentile(50)), millis(latency.total.getPercentile(90)),
+                millis(latency.total.getPercentile(99)), millis(latency.total.getMax()))));
+    }
+
+    public static void reset() {
+        endpoints.clear();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * 反射读取 ContractEndpoint 中的常量，建立 路径 -> 常量名 映射
+     */
+    private static Map<String, String> loadEndpointNames() {
+        Map<String, String> names = new HashMap<>();
+        for (Field field : ContractEndpoint.class.getFields()) {
+            if (field.getType() != String.class || !Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            try {
+                // 多个常量指向同一地址时保留第一个
+                names.putIfAbsent((String) field.get(null), field.getName());
+            } catch (IllegalAccessException e) {
+                logger.debug("无法读取接口常量: {}", field.getName());
+            }
+        }
+        return Collections.unmodifiableMap(names);
+    }
+
+    /**
+     * 单次请求的分阶段计时（仅在发出请求的线程内读写）
+     */
+    public static class RequestTimings {
+        long dnsNanos;
+        long connectNanos;
+        long sendStartNanos;
+        long firstByteNanos;
+
+        void addDns(long nanos) {
+            dnsNanos += nanos;
+        }
+
+        void addConnect(long nanos) {
+            connectNanos += nanos;
+        }
+
+        void markSendStart() {
+            sendStartNanos = System.nanoTime();
+        }
+
+        void markFirstByte() {
+            firstByteNanos = System.nanoTime();
+        }
+    }
+
+    private static class EndpointLatency {
+
+        private final String path;
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram dns = new LatencyHistogram();
+        private final LatencyHistogram connect = new LatencyHistogram();
+        private final LatencyHistogram ttfb = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+
+        private EndpointLatency(String path) {
+            this.path = path;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("path", path);
+            map.put("count", total.getCount());
+            map.put("errors", errors.sum());
+            map.put("total", percentiles(total));
+            if (ttfb.getCount() > 0) {
+                map.put("ttfb", percentiles(ttfb));
+            }
+            if (connect.getCount() > 0) {
+                map.put("connect", percentiles(connect));
+            }
+            if (dns.getCount() > 0) {
+                map.put("dns", percentiles(dns));
+            }
+            return map;
+        }
+
+        private static Map<String, Object> percentiles(LatencyHistogram histogram) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", histogram.getCount());
+            map.put("p50Ms", millis(histogram.getPercentile(50)));
+            map.put("p90Ms", millis(histogram.getPercentile(90)));
+            map.put("p99Ms", millis(histogram.getPercentile(99)));
+            map.put("maxMs", millis(histogram.getMax()));
+            return map;
+        }
+    }
+
+    /**
+     * 包住实际的 HTTP 调用计时；分阶段计时由 HttpClientPool 中的连接/执行钩子写入当前线程的 RequestTimings
+     * 最低优先级，保证在日志等过滤器之后、紧贴实际请求执行
+     */
+    private static class TimingFilter implements OrderedFilter {
+
+        @Override
+        public int getOrder() {
+            return LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec,
+                               FilterableResponseSpecification responseSpec,
+                               FilterContext ctx) {
+            RequestTimings timings = new RequestTimings();
+            currentTimings.set(timings);
+            long start = System.nanoTime();
+            int statusCode = 0;
+            try {
+                Response response = ctx.next(requestSpec, responseSpec);
+                statusCode = response.getStatusCode();
+                return response;
+            } finally {
+                currentTimings.remove();
+                record(requestSpec.getUserDefinedPath(), System.nanoTime() - start, timings, statusCode);
+            }
+        }
+    }
+}
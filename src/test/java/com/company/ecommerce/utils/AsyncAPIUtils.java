@@ -0,0 +1,170 @@
+package com.company.ecommerce.utils;
+
+import com.company.ecommerce.config.ConfigManager;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import io.qameta.allure.model.Stage;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.util.ResultsUtils;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 异步 API 工具类 - APIUtils 的非阻塞版本
+ * 基于 JDK HttpClient，所有方法返回 CompletableFuture，便于单个用例并发调用多个互不依赖的接口后再 join
+ *
+ * 请求同样使用 HMAC 签名；Allure 步骤在调用线程上直接加入当前用例/步骤的子步骤列表，
+ * 响应完成时结束该 StepResult，全程不改动任何线程的 Allure 上下文，
+ * 因此响应在其他线程完成时步骤仍挂在正确的位置，调用线程之后的步骤也不受影响
+ */
+public class AsyncAPIUtils {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncAPIUtils.class);
+
+    private static final ExecutorService callbackExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("async-api-", 0).factory());
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(ConfigManager.getInstance().getIntProperty("api.timeout", 30)))
+            .executor(callbackExecutor)
+            .build();
+
+    private final String baseUrl;
+    private final Duration timeout;
+
+    public AsyncAPIUtils() {
+        this.baseUrl = ConfigManager.getInstance().getApiBaseUrl();
+        this.timeout = Duration.ofSeconds(ConfigManager.getInstance().getIntProperty("api.timeout", 30));
+        logger.info("✅ 异步API工具初始化完成，Base URL: {}", baseUrl);
+    }
+
+    public CompletableFuture<Response> get(String endpoint) {
+        return send("GET", endpoint, null);
+    }
+
+    public CompletableFuture<Response> post(String endpoint, Object body) {
+        return send("POST", endpoint, body);
+    }
+
+    public CompletableFuture<Response> put(String endpoint, Object body) {
+        return send("PUT", endpoint, body);
+    }
+
+    public CompletableFuture<Response> delete(String endpoint) {
+        return send("DELETE", endpoint, null);
+    }
+
+    public CompletableFuture<Response> patch(String endpoint, Object body) {
+        return send("PATCH", endpoint, body);
+    }
+
+    private CompletableFuture<Response> send(String method, String endpoint, Object body) {
+        ApiExchange exchange = body != null ? ApiExchange.of(method, endpoint, body) : null;
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                .timeout(timeout)
+                .header("Content-Type", "application/json;charset=UTF-8")
+                .header("appid", ConfigManager.getInstance().getApiAppId())
+                .header("servicecode", ConfigManager.getInstance().getServiceCode());
+        if (exchange != null) {
+            builder.header("Content-Signature", HmacSigner.forApi().headerValue(exchange.getRequestBody()))
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(exchange.getRequestBody()));
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+
+        // 在调用线程上创建步骤，直接挂到当前用例/步骤下，不压入任何线程的 Allure 上下文
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        Optional<String> parentUuid = lifecycle.getCurrentTestCaseOrStep();
+        StepResult step = new StepResult()
+                .setName("异步" + method + "请求: " + endpoint)
+                .setStage(Stage.RUNNING)
+                .setStart(System.currentTimeMillis());
+        parentUuid.ifPresent(parent -> {
+            if (exchange != null) {
+                addAttachment(lifecycle, step, "请求参数", exchange.getRequestBody());
+            }
+            if (parent.equals(lifecycle.getCurrentTestCase().orElse(null))) {
+                lifecycle.updateTestCase(parent, testCase -> testCase.getSteps().add(step));
+            } else {
+                lifecycle.updateStep(parent, parentStep -> parentStep.getSteps().add(step));
+            }
+        });
+
+        logger.debug("异步{}请求: {}", method, endpoint);
+        long start = System.nanoTime();
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(AsyncAPIUtils::toResponse)
+                .whenComplete((response, error) -> {
+                    // JDK HttpClient 不暴露连接阶段，只记录总耗时
+                    ApiLatencyRecorder.record(endpoint, System.nanoTime() - start, null,
+                            response != null ? response.getStatusCode() : 0);
+                    if (parentUuid.isEmpty()) {
+                        return;
+                    }
+                    // 步骤不在 Allure 的线程上下文和存储中，直接结束持有的 StepResult
+                    if (error == null) {
+                        addAttachment(lifecycle, step, "返回结果", response.asByteArray());
+                    }
+                    synchronized (step) {
+                        step.setStatus(error == null ? Status.PASSED : Status.FAILED)
+                                .setStatusDetails(error == null ? null
+                                        : ResultsUtils.getStatusDetails(error).orElse(null))
+                                .setStage(Stage.FINISHED)
+                                .setStop(System.currentTimeMillis());
+                    }
+                });
+    }
+
+    /**
+     * 将 JDK 响应转换为 RestAssured Response，便于沿用 then()/jsonPath() 断言
+     */
+    private static Response toResponse(HttpResponse<byte[]> httpResponse) {
+        List<Header> headers = new ArrayList<>();
+        httpResponse.headers().map().forEach((name, values) ->
+                values.forEach(value -> headers.add(new Header(name, value))));
+
+        return new ResponseBuilder()
+                .setStatusCode(httpResponse.statusCode())
+                .setStatusLine("HTTP/1.1 " + httpResponse.statusCode())
+                .setHeaders(new Headers(headers))
+                .setContentType(httpResponse.headers().firstValue("Content-Type").orElse("application/json"))
+                .setBody(httpResponse.body())
+                .build();
+    }
+
+    /**
+     * 给持有的步骤添加附件，不依赖任何线程的 Allure 上下文
+     */
+    private static void addAttachment(AllureLifecycle lifecycle, StepResult step, String name, byte[] content) {
+        String source = UUID.randomUUID() + "-attachment.json";
+        synchronized (step) {
+            step.getAttachments().add(new Attachment()
+                    .setName(name)
+                    .setType("application/json")
+                    .setSource(source));
+        }
+        lifecycle.writeAttachment(source, new ByteArrayInputStream(content));
+    }
+}
@@ -0,0 +1,423 @@
+package com.company.ecommerce.utils;
+
+import com.company.ecommerce.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 异步批量数据库断言
+ * 测试线程只登记校验（db.verify.async=true 时），由后台线程按 db.verify.async.interval 定时把同一张表、
+ * 同一主键列的所有待校验项合并为一条 SELECT ... WHERE key IN (...) 查询，测试方法体内不再等待数据库往返。
+ *
+ * 未查到的项在 db.await.timeout 内会在后续批次中继续校验（与 awaitQuery 的最终一致语义相同），
+ * 超时的项记为失败并关联到登记时的 ITestResult。AsyncDbVerificationListener 在测试方法调用结束后等待该测试的校验完成，
+ * 在测试结果上报之前把失败写入结果；没有关联测试（或等待超时后才完成）的失败由 {@link #shutdown()} 汇总抛出，使整个运行失败。
+ *
+ * 测试结束时仍会阻塞：开始等待时立即执行一批（不等下一个 db.verify.async.interval），批次完成后唤醒等待线程，
+ * 数据已提交时阻塞约一次批量查询的往返，未可见时最长到 db.await.timeout。收益来自并行用例的校验合并为同一批查询；
+ * 顺序执行的用例每条仍有一次查询往返，耗时与同步的 awaitDatabase 相当。
+ *
+ * 只有形如 SELECT col[, ...] FROM table WHERE keyCol = 'value' 的单键查询可以合并，其余 SQL 由调用方同步校验
+ */
+public final class AsyncDbVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncDbVerifier.class);
+
+    private static final Pattern SINGLE_KEY_LOOKUP = Pattern.compile(
+            "(?is)\\s*select\\s+(\\*|[\\w`]+(?:\\s*,\\s*[\\w`]+)*)\\s+from\\s+([\\w`.]+)"
+                    + "\\s+where\\s+([\\w`.]+)\\s*=\\s*(?:'([^']*)'|(-?\\d+))\\s*;?\\s*");
+
+    private static volatile AsyncDbVerifier instance;
+
+    private final DatabaseManager database = new DatabaseManager();
+    private final ScheduledExecutorService scheduler;
+    private final long timeoutNanos;
+    private final int batchSize;
+
+    // 测试线程登记 → 后台线程取出；pending 只由后台线程访问
+    private final ConcurrentLinkedQueue<Expectation> incoming = new ConcurrentLinkedQueue<>();
+    private final List<Expectation> pending = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Failure> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final ConcurrentMap<ITestResult, Integer> outstandingByResult = new ConcurrentHashMap<>();
+    // 每个批次结束时 notifyAll，唤醒 await 中的线程
+    private final Object batchCompleted = new Object();
+
+    private AsyncDbVerifier() {
+        ConfigManager config = ConfigManager.getInstance();
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(config.getIntProperty("db.await.timeout", 10));
+        this.batchSize = Math.max(1, config.getIntProperty("db.verify.async.batch.size", 500));
+        long interval = Math.max(10, config.getIntProperty("db.verify.async.interval", 200));
+
+        database.connect();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "async-db-verifier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::verifyPending, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("异步数据库断言已启动: interval={}ms, batchSize={}", interval, batchSize);
+    }
+
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBooleanProperty("db.verify.async", false);
+    }
+
+    private static AsyncDbVerifier getInstance() {
+        if (instance == null) {
+            synchronized (AsyncDbVerifier.class) {
+                if (instance == null) {
+                    instance = new AsyncDbVerifier();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 登记"查询结果第一列不为 null"的校验（与 queryDatabase + assertNotNull 等价）
+     * @return false 表示未启用异步校验或 SQL 不是可合并的单键查询，调用方应同步校验
+     */
+    public static boolean enqueueNotNull(String sql) {
+        if (!isEnabled()) {
+            return false;
+        }
+        Matcher matcher = SINGLE_KEY_LOOKUP.matcher(sql);
+        if (!matcher.matches()) {
+            return false;
+        }
+        String columns = matcher.group(1).trim();
+        // SELECT * 只校验行存在；否则校验第一列不为 null
+        String column = "*".equals(columns) ? null : columns.split(",")[0].trim();
+        String key = matcher.group(4) != null ? matcher.group(4) : matcher.group(5);
+        getInstance().enqueue(new Lookup(matcher.group(2), matcher.group(3), column), key, sql);
+        return true;
+    }
+
+    /**
+     * 登记"table 中 keyColumn = key 的行存在"的校验
+     */
+    public static void expectRow(String table, String keyColumn, Object key) {
+        expectNotNull(table, keyColumn, key, null);
+    }
+
+    /**
+     * 登记"table 中 keyColumn = key 的行存在且 column 不为 null"的校验
+     * 表名、列名会拼入 SQL，只允许字母、数字、下划线和点
+     */
+    public static void expectNotNull(String table, String keyColumn, Object key, String column) {
+        requireIdentifier(table);
+        requireIdentifier(keyColumn);
+        if (column != null) {
+            requireIdentifier(column);
+        }
+        String description = "SELECT " + (column == null ? "*" : column) + " FROM " + table
+                + " WHERE " + keyColumn + " = '" + key + "'";
+        getInstance().enqueue(new Lookup(table, keyColumn, column), String.valueOf(key), description);
+    }
+
+    private static void requireIdentifier(String name) {
+        if (name == null || !name.matches("[\\w.]+")) {
+            throw new IllegalArgumentException("非法的表名或列名: " + name);
+        }
+    }
+
+    private void enqueue(Lookup lookup, String key, String sql) {
+        ITestResult origin = Reporter.getCurrentTestResult();
+        outstanding.incrementAndGet();
+        if (origin != null) {
+            outstandingByResult.merge(origin, 1, Integer::sum);
+        }
+        incoming.add(new Expectation(lookup, key, sql, origin, System.nanoTime() + timeoutNanos));
+    }
+
+    // ==================== 后台批量校验 ====================
+
+    private void verifyPending() {
+        Expectation next;
+        while ((next = incoming.poll()) != null) {
+            pending.add(next);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Lookup, List<Expectation>> groups = new HashMap<>();
+        for (Expectation expectation : pending) {
+            groups.computeIfAbsent(expectation.lookup, lookup -> new ArrayList<>()).add(expectation);
+        }
+
+        try {
+            long now = System.nanoTime();
+            for (Map.Entry<Lookup, List<Expectation>> group : groups.entrySet()) {
+                Set<String> found;
+                RuntimeException error = null;
+                try {
+                    found = lookup(group.getKey(), group.getValue());
+                } catch (RuntimeException e) {
+                    found = Set.of();
+                    error = e;
+                }
+
+                for (Expectation expectation : group.getValue()) {
+                    if (found.contains(normalize(expectation.key))) {
+                        resolve(expectation, null);
+                    } else if (error != null) {
+                        resolve(expectation, "查询失败: " + error.getMessage());
+                    } else if (now - expectation.deadline >= 0) {
+                        resolve(expectation, "超时 " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos)
+                                + " ms 仍未查到数据");
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("异步数据库断言执行失败", e);
+        } finally {
+            // 未查到且未超时的项留到下一批
+            pending.removeIf(expectation -> expectation.resolved);
+            DatabaseManager.releaseThreadConnection();
+            synchronized (batchCompleted) {
+                batchCompleted.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 按 IN (...) 分批查询，返回满足条件的主键（已归一化）
+     */
+    private Set<String> lookup(Lookup lookup, List<Expectation> expectations) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Expectation expectation : expectations) {
+            keys.add(expectation.key);
+        }
+        List<String> keyList = new ArrayList<>(keys);
+
+        Set<String> found = new HashSet<>();
+        for (int from = 0; from < keyList.size(); from += batchSize) {
+            List<String> chunk = keyList.subList(from, Math.min(from + batchSize, keyList.size()));
+            StringBuilder sql = new StringBuilder("SELECT ").append(lookup.keyColumn);
+            if (lookup.column != null) {
+                sql.append(", ").append(lookup.column);
+            }
+            sql.append(" FROM ").append(lookup.table).append(" WHERE ").append(lookup.keyColumn).append(" IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+
+            database.queryForEach(sql.toString(), 0, rs -> {
+                if (lookup.column == null || rs.getObject(2) != null) {
+                    found.add(normalize(rs.getObject(1)));
+                }
+            }, chunk.toArray());
+        }
+        return found;
+    }
+
+    /**
+     * MySQL 字符串比较默认不区分大小写，主键按小写比较
+     */
+    private static String normalize(Object key) {
+        return String.valueOf(key).toLowerCase(Locale.ROOT);
+    }
+
+    private void resolve(Expectation expectation, String failureMessage) {
+        expectation.resolved = true;
+        if (failureMessage != null) {
+            AssertionError error = new AssertionError("异步数据库断言失败: " + expectation.sql + " - " + failureMessage);
+            logger.error("{}（测试: {}）", error.getMessage(),
+                    expectation.origin == null ? "未知" : expectation.origin.getName());
+            failures.add(new Failure(expectation.origin, error));
+        }
+        if (expectation.origin != null) {
+            outstandingByResult.computeIfPresent(expectation.origin, (result, count) -> count == 1 ? null : count - 1);
+        }
+        outstanding.decrementAndGet();
+    }
+
+    // ==================== 结果回写 ====================
+
+    /**
+     * 等待所有已登记的校验完成（成功、失败或超时）
+     * @return false 表示等待超时仍有未完成的校验
+     */
+    public static boolean awaitCompletion() {
+        AsyncDbVerifier verifier = instance;
+        return verifier == null || verifier.await(() -> verifier.outstanding.get() == 0);
+    }
+
+    /**
+     * 等待指定测试登记的校验完成；有未完成的校验时立即执行一批，不等下一个定时批次
+     * @return false 表示等待超时仍有未完成的校验，这些校验的失败在 {@link #shutdown()} 时汇总
+     */
+    public static boolean awaitCompletion(ITestResult result) {
+        AsyncDbVerifier verifier = instance;
+        return verifier == null || verifier.await(() -> !verifier.outstandingByResult.containsKey(result));
+    }
+
+    private boolean await(BooleanSupplier done) {
+        if (done.getAsBoolean()) {
+            return true;
+        }
+        try {
+            // 单线程调度器，与定时批次串行执行
+            scheduler.execute(this::verifyPending);
+        } catch (RejectedExecutionException e) {
+            return done.getAsBoolean();
+        }
+
+        // 最后登记的项最多还需要一个超时时间加一个批次间隔
+        long deadline = System.nanoTime() + timeoutNanos + TimeUnit.SECONDS.toNanos(5);
+        synchronized (batchCompleted) {
+            while (!done.getAsBoolean()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    logger.warn("等待异步数据库断言超时，仍有 {} 项未完成", outstanding.get());
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(batchCompleted, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 取出属于指定测试结果的失败
+     */
+    public static List<AssertionError> takeFailures(ITestResult result) {
+        List<AssertionError> errors = new ArrayList<>();
+        AsyncDbVerifier verifier = instance;
+        if (verifier == null) {
+            return errors;
+        }
+        Iterator<Failure> iterator = verifier.failures.iterator();
+        while (iterator.hasNext()) {
+            Failure failure = iterator.next();
+            if (failure.result == result) {
+                iterator.remove();
+                errors.add(failure.error);
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * 停止后台线程，测试套件结束时调用
+     * @throws AssertionError 存在未写入测试结果的失败（登记时不在测试方法中，或在测试结束后才完成），
+     *                        逐项作为 suppressed 附加
+     */
+    public static void shutdown() {
+        List<Failure> unreported;
+        synchronized (AsyncDbVerifier.class) {
+            if (instance == null) {
+                return;
+            }
+            awaitCompletion();
+            instance.scheduler.shutdownNow();
+            unreported = new ArrayList<>(instance.failures);
+            instance.database.disconnect();
+            instance = null;
+            logger.info("异步数据库断言已停止");
+        }
+
+        if (!unreported.isEmpty()) {
+            AssertionError error = new AssertionError(
+                    "有 " + unreported.size() + " 项异步数据库断言失败未写入测试结果");
+            for (Failure failure : unreported) {
+                logger.error("未写入测试结果的异步数据库断言失败: {}（测试: {}）", failure.error.getMessage(),
+                        failure.result == null ? "未知" : failure.result.getName());
+                error.addSuppressed(failure.error);
+            }
+            throw error;
+        }
+    }
+
+    /**
+     * 可合并的查询：同一张表、同一主键列、同一校验列
+     */
+    private static final class Lookup {
+        private final String table;
+        private final String keyColumn;
+        private final String column;
+
+        private Lookup(String table, String keyColumn, String column) {
+            this.table = table;
+            this.keyColumn = keyColumn;
+            this.column = column;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Lookup)) {
+                return false;
+            }
+            Lookup other = (Lookup) o;
+            return table.equalsIgnoreCase(other.table) && keyColumn.equalsIgnoreCase(other.keyColumn)
+                    && (column == null ? other.column == null : column.equalsIgnoreCase(other.column));
+        }
+
+        @Override
+        public int hashCode() {
+            return (table.toLowerCase(Locale.ROOT) + "|" + keyColumn.toLowerCase(Locale.ROOT) + "|"
+                    + (column == null ? "" : column.toLowerCase(Locale.ROOT))).hashCode();
+        }
+    }
+
+    private static final class Expectation {
+        private final Lookup lookup;
+        private final String key;
+        private final String sql;
+        private final ITestResult origin;
+        private final long deadline;
+        private boolean resolved;
+
+        private Expectation(Lookup lookup, String key, String sql, ITestResult origin, long deadline) {
+            this.lookup = lookup;
+            this.key = key;
+            this.sql = sql;
+            this.origin = origin;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class Failure {
+        private final ITestResult result;
+        private final AssertionError error;
+
+        private Failure(ITestResult result, AssertionError error) {
+            this.result = result;
+            this.error = error;
+        }
+    }
+}
@@ -3,180 +3,516 @@ package com.company.ecommerce.utils;
 import com.company.ecommerce.config.ConfigManager;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.sql.*;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
 
 /**
  * 数据库管理工具类
  * 提供数据库连接、查询、更新等操作
+ *
+ * 连接来自进程级 HikariCP 连接池（首次 connect() 时创建，套件结束时 {@link #shutdownPool()} 关闭）。
+ * 每个线程第一次访问数据库时从池中借出一个连接并绑定到当前线程，同一测试方法内的查询和事务都使用该连接，
+ * 测试方法结束后由 {@link #releaseThreadConnection()} 归还。并行测试类不再各自建立 MySQL 连接，
+ * 总连接数由 db.pool.max.size 限制
+ *
+ * 预编译语句两级缓存：线程借出的连接上按 SQL 文本缓存 PreparedStatement（LRU，db.statement.cache.size），
+ * 连接归还时关闭；MySQL 驱动端 cachePrepStmts 按物理连接缓存，连接归还后仍然有效
  */
 public class DatabaseManager {
 
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
-    private Connection connection;
     private boolean isConnected = false;
 
-    // 连接池配置
-    private static final int MAX_POOL_SIZE = 5;
-    private static final int CONNECTION_TIMEOUT = 30;
-    private static final String JDBC_URL_TEMPLATE = "jdbc:mysql://%s:%s/%s?useSSL=false&serverTimezone=UTC";
+    private static final String POOL_NAME = "EcommerceDBPool";
 
-    private static HikariDataSource dataSource;
+    private static volatile HikariDataSource dataSource;
     private static final ThreadLocal<Connection> connectionHolder = new ThreadLocal<>();
+    private static final ThreadLocal<StatementCache> statementCacheHolder = new ThreadLocal<>();
 
-//    static {
-//        // 初始化连接池
-//        HikariConfig config = new HikariConfig();
-//        config.setJdbcUrl(ConfigManager.getInstance().getDbURL());
-//        config.setUsername(ConfigManager.getInstance().getDbUsername());
-//        config.setPassword(ConfigManager.getInstance().getDbPassword());
-//        config.setMaximumPoolSize(MAX_POOL_SIZE);
-//        config.setConnectionTimeout(CONNECTION_TIMEOUT * 1000);
-//        config.setConnectionTestQuery("SELECT 1");
-//        config.setPoolName("EcommerceDBPool");
-//
-//        // 添加性能监控
-////        config.setMetricRegistry(...);
-//
-//        dataSource = new HikariDataSource(config);
-//    }
-//
-//    public Connection getConnection() throws SQLException {
-//        Connection conn = connectionHolder.get();
-//        if (conn == null || conn.isClosed()) {
-//            conn = dataSource.getConnection();
-//            connectionHolder.set(conn);
-//        }
-//        return conn;
-//    }
+    private static final int STATEMENT_CACHE_SIZE =
+            Math.max(1, ConfigManager.getInstance().getIntProperty("db.statement.cache.size", 64));
 
+    // 预编译语句缓存统计（所有线程累计）
+    private static final LongAdder statementCacheHits = new LongAdder();
+    private static final LongAdder statementCacheMisses = new LongAdder();
+    private static final LongAdder statementCacheEvictions = new LongAdder();
 
+    /**
+     * 进程级连接池，首次调用时按配置创建
+     */
+    private static HikariDataSource dataSource() {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (DatabaseManager.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    ds = createDataSource();
+                    dataSource = ds;
+                }
+            }
+        }
+        return ds;
+    }
 
+    private static HikariDataSource createDataSource() {
+        ConfigManager config = ConfigManager.getInstance();
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName(POOL_NAME);
+        hikariConfig.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        hikariConfig.setJdbcUrl(config.getDbURL());
+        hikariConfig.setUsername(config.getDbUsername());
+        hikariConfig.setPassword(config.getDbPassword());
+        hikariConfig.setMaximumPoolSize(config.getIntProperty("db.pool.max.size", 10));
+        hikariConfig.setMinimumIdle(config.getIntProperty("db.pool.min.idle", 2));
+        hikariConfig.setConnectionTimeout(TimeUnit.SECONDS.toMillis(config.getIntProperty("db.pool.connection.timeout", 30)));
+        hikariConfig.setIdleTimeout(TimeUnit.SECONDS.toMillis(config.getIntProperty("db.pool.idle.timeout", 600)));
+        hikariConfig.setMaxLifetime(TimeUnit.SECONDS.toMillis(config.getIntProperty("db.pool.max.lifetime", 1800)));
+        // 连接借出超过该时长未归还时打印借出位置的堆栈，0 表示关闭
+        hikariConfig.setLeakDetectionThreshold(
+                TimeUnit.SECONDS.toMillis(config.getIntProperty("db.pool.leak.detection.threshold", 60)));
+        // MySQL 驱动端预编译语句缓存，按物理连接缓存，跨借出/归还有效
+        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSize", config.getIntProperty("db.pool.prep.stmt.cache.size", 250));
+        hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", config.getIntProperty("db.pool.prep.stmt.cache.sql.limit", 2048));
+        hikariConfig.addDataSourceProperty("useServerPrepStmts", config.getBooleanProperty("db.pool.server.prep.stmts", true));
+        // 抓取大小 > 0 时使用服务端游标分批读取（默认抓取大小 0 的查询不受影响）
+        hikariConfig.addDataSourceProperty("useCursorFetch", config.getBooleanProperty("db.pool.use.cursor.fetch", true));
+
+        logger.info("创建数据库连接池 {}: maxSize={}, minIdle={}", POOL_NAME,
+                hikariConfig.getMaximumPoolSize(), hikariConfig.getMinimumIdle());
+        try {
+            return new HikariDataSource(hikariConfig);
+        } catch (RuntimeException e) {
+            logger.error("❌ 数据库连接池创建失败", e);
+            throw new RuntimeException("Database connection failed", e);
+        }
+    }
 
     /**
-     * 获取数据库连接
+     * 当前线程绑定的连接，没有时从连接池借出一个
      */
-    public void connect() {
-        if (isConnected && connection != null) {
-            logger.info("数据库连接已存在，复用现有连接");
-            return;
+    private static Connection getConnection() throws SQLException {
+        Connection conn = connectionHolder.get();
+        if (conn == null || conn.isClosed()) {
+            closeStatementCache();
+            conn = dataSource().getConnection();
+            connectionHolder.set(conn);
+            statementCacheHolder.set(new StatementCache(STATEMENT_CACHE_SIZE));
         }
+        return conn;
+    }
 
-        try {
-            String host = ConfigManager.getInstance().getDbHost();
-            String port = ConfigManager.getInstance().getProperty("db.port", "3306");
-            String database = ConfigManager.getInstance().getDbName();
-            String username = ConfigManager.getInstance().getDbUsername();
-            String password = ConfigManager.getInstance().getDbPassword();
+    /**
+     * 从当前线程连接的语句缓存中取出（或预编译）SQL 对应的 PreparedStatement
+     * 返回的语句归缓存所有，调用方不能关闭，只需关闭 ResultSet
+     */
+    private static PreparedStatement prepare(String sql) throws SQLException {
+        Connection conn = getConnection();
+        StatementCache cache = statementCacheHolder.get();
+        PreparedStatement stmt = cache.get(sql);
+        if (stmt != null && !stmt.isClosed()) {
+            statementCacheHits.increment();
+            stmt.clearParameters();
+            return stmt;
+        }
+        statementCacheMisses.increment();
+        stmt = conn.prepareStatement(sql);
+        cache.put(sql, stmt);
+        return stmt;
+    }
 
-//            String jdbcUrl = String.format(JDBC_URL_TEMPLATE, host, port, database);
-            String jdbcUrl = ConfigManager.getInstance().getDbURL();
+    /**
+     * 执行失败后丢弃缓存中的语句，下次重新预编译
+     */
+    private static void discardStatement(String sql) {
+        StatementCache cache = statementCacheHolder.get();
+        if (cache != null) {
+            closeQuietly(cache.remove(sql));
+        }
+    }
 
-            logger.info("连接数据库: {}", database);
-            logger.debug("JDBC URL: {}", jdbcUrl);
+    private static void closeStatementCache() {
+        StatementCache cache = statementCacheHolder.get();
+        if (cache != null) {
+            statementCacheHolder.remove();
+            cache.values().forEach(DatabaseManager::closeQuietly);
+            cache.clear();
+        }
+    }
 
-            // 加载 MySQL 驱动
-            Class.forName("com.mysql.cj.jdbc.Driver");
+    private static void closeQuietly(Statement stmt) {
+        if (stmt != null) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                logger.debug("关闭预编译语句失败: {}", e.getMessage());
+            }
+        }
+    }
 
-            // 建立连接
-            connection = DriverManager.getConnection(jdbcUrl, username, password);
-            isConnected = true;
+    /**
+     * 绑定参数，常见类型直接调用对应的 setter，避免驱动按 Object 类型分派
+     */
+    private static void bind(PreparedStatement stmt, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            if (param instanceof String) {
+                stmt.setString(i + 1, (String) param);
+            } else if (param instanceof Long) {
+                stmt.setLong(i + 1, (Long) param);
+            } else if (param instanceof Integer) {
+                stmt.setInt(i + 1, (Integer) param);
+            } else {
+                stmt.setObject(i + 1, param);
+            }
+        }
+    }
 
-            logger.info("✅ 数据库连接成功");
+    private static void logStatement(String action, String sql, Object[] params) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("{}: {}", action, sql);
+            if (params.length > 0) {
+                logger.debug("参数: {}", Arrays.toString(params));
+            }
+        }
+    }
 
-        } catch (ClassNotFoundException e) {
-            logger.error("❌ MySQL JDBC 驱动未找到", e);
-            throw new RuntimeException("MySQL JDBC driver not found", e);
+    /**
+     * 预编译语句缓存统计
+     */
+    public static String describeStatementCacheStats() {
+        long hits = statementCacheHits.sum();
+        long misses = statementCacheMisses.sum();
+        long total = hits + misses;
+        return String.format("hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%",
+                hits, misses, statementCacheEvictions.sum(), total == 0 ? 0.0 : hits * 100.0 / total);
+    }
+
+    /**
+     * 释放当前线程绑定的连接（归还连接池），未提交的事务会被回滚
+     * 每个测试方法结束后调用，避免线程（尤其是数量很多的虚拟线程）长期持有连接
+     */
+    public static void releaseThreadConnection() {
+        Connection conn = connectionHolder.get();
+        if (conn == null) {
+            return;
+        }
+        connectionHolder.remove();
+        closeStatementCache();
+        try {
+            if (!conn.isClosed() && !conn.getAutoCommit()) {
+                logger.warn("线程归还连接时仍有未结束的事务，已回滚");
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warn("回滚未结束的事务失败: {}", e.getMessage());
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.warn("释放线程数据库连接失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 关闭进程级连接池，测试套件结束时调用
+     */
+    public static void shutdownPool() {
+        synchronized (DatabaseManager.class) {
+            if (dataSource != null) {
+                releaseThreadConnection();
+                logger.info("数据库连接池统计: {}", describePoolStats());
+                logger.info("预编译语句缓存统计: {}", describeStatementCacheStats());
+                dataSource.close();
+                dataSource = null;
+                logger.info("数据库连接池已关闭");
+            }
+        }
+    }
+
+    /**
+     * 连接池当前状态，连接池未创建时返回 "未创建"
+     */
+    public static String describePoolStats() {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            return "未创建";
+        }
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        if (pool == null) {
+            return "未启动";
+        }
+        return String.format("active=%d, idle=%d, total=%d, waiting=%d",
+                pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getTotalConnections(), pool.getThreadsAwaitingConnection());
+    }
+
+    /**
+     * 初始化数据库访问：创建（或复用）进程级连接池并校验可以借出连接
+     */
+    public void connect() {
+        if (isConnected) {
+            logger.info("数据库连接池已就绪，复用现有连接池");
+            return;
+        }
+
+        String database = ConfigManager.getInstance().getDbName();
+        logger.info("连接数据库: {}", database);
+        logger.debug("JDBC URL: {}", ConfigManager.getInstance().getDbURL());
+
+        // 只校验能借出连接，不绑定到当前线程（@BeforeClass 所在线程未必执行测试方法）
+        try (Connection ignored = dataSource().getConnection()) {
+            isConnected = true;
+            logger.info("✅ 数据库连接成功（连接池: {}）", describePoolStats());
         } catch (SQLException e) {
             logger.error("❌ 数据库连接失败", e);
             throw new RuntimeException("Database connection failed", e);
         }
     }
 
+    /**
+     * 逐行映射结果
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T mapRow(ResultSet rs, int rowNum) throws SQLException;
+    }
+
+    /**
+     * 逐行处理结果，不保留已处理的行
+     */
+    @FunctionalInterface
+    public interface RowCallback {
+        void processRow(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface ResultSetExtractor<T> {
+        T extract(ResultSet rs) throws SQLException;
+    }
+
     /**
      * 执行查询并返回结果列表
      */
     public List<Map<String, Object>> executeQuery(String sql, Object... params) {
-        checkConnection();
-        List<Map<String, Object>> resultList = new ArrayList<>();
+        return query(sql, new ColumnMapRowMapper(), params);
+    }
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            // 设置参数
-            for (int i = 0; i < params.length; i++) {
-                stmt.setObject(i + 1, params[i]);
+    /**
+     * 执行查询，每行经 rowMapper 转换后返回
+     */
+    public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... params) {
+        List<T> results = execute(sql, 0, 0, params, rs -> {
+            List<T> rows = new ArrayList<>();
+            while (rs.next()) {
+                rows.add(rowMapper.mapRow(rs, rows.size()));
             }
+            return rows;
+        });
+        logger.info("查询返回 {} 条记录", results.size());
+        return results;
+    }
 
-            logger.debug("执行查询: {}", sql);
-            if (params.length > 0) {
-                logger.debug("参数: {}", (Object) params);
+    /**
+     * 流式查询：按默认抓取大小（db.query.fetch.size）逐行回调，结果不在内存中累积
+     * @return 处理的行数
+     */
+    public long queryForEach(String sql, RowCallback callback, Object... params) {
+        return queryForEach(sql, ConfigManager.getInstance().getIntProperty("db.query.fetch.size", 1000),
+                callback, params);
+    }
+
+    /**
+     * 流式查询：按指定抓取大小从服务端分批读取并逐行回调，适合大结果集的校验和数据清理扫描
+     * 回调中不能在同一连接上执行其他语句（结果集读取完之前连接被占用）
+     * @param fetchSize 每批行数；0 表示驱动默认（一次读取全部），Integer.MIN_VALUE 表示 MySQL 逐行流式读取
+     * @return 处理的行数
+     */
+    public long queryForEach(String sql, int fetchSize, RowCallback callback, Object... params) {
+        long count = execute(sql, fetchSize, 0, params, rs -> {
+            long rows = 0;
+            while (rs.next()) {
+                callback.processRow(rs);
+                rows++;
             }
+            return rows;
+        });
+        logger.info("流式查询处理 {} 条记录", count);
+        return count;
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                ResultSetMetaData metaData = rs.getMetaData();
-                int columnCount = metaData.getColumnCount();
-
-                while (rs.next()) {
-                    Map<String, Object> row = new HashMap<>();
-                    for (int i = 1; i <= columnCount; i++) {
-                        String columnName = metaData.getColumnName(i);
-                        Object value = rs.getObject(i);
-                        row.put(columnName, value);
-                    }
-                    resultList.add(row);
-                }
+    /**
+     * 只映射第一行，没有结果时返回 null
+     * 限制 maxRows 为 1：驱动默认会在 executeQuery 时把整个结果集读入内存，不限制时只读第一行也会传输全部行
+     */
+    public <T> T queryForFirst(String sql, RowMapper<T> rowMapper, Object... params) {
+        return execute(sql, 0, 1, params, rs -> rs.next() ? rowMapper.mapRow(rs, 0) : null);
+    }
+
+    /**
+     * 等待数据库达到预期状态：轮询查询第一行第一列，直到值不为 null
+     * 超时时间与轮询间隔使用 db.await.* 配置
+     */
+    public Object awaitQueryForObject(String sql, Object... params) {
+        return awaitQuery(sql, (rs, rowNum) -> rs.getObject(1), Objects::nonNull, params);
+    }
+
+    /**
+     * 等待数据库达到预期状态，使用默认超时（db.await.timeout）
+     * @see #awaitQuery(Duration, String, RowMapper, Predicate, Object...)
+     */
+    public <T> T awaitQuery(String sql, RowMapper<T> rowMapper, Predicate<? super T> condition, Object... params) {
+        Duration timeout = Duration.ofSeconds(ConfigManager.getInstance().getIntProperty("db.await.timeout", 10));
+        return awaitQuery(timeout, sql, rowMapper, condition, params);
+    }
+
+    /**
+     * 等待数据库达到预期状态（用于异步落库、主从延迟等最终一致的场景）
+     * 轮询第一行映射结果（无结果时为 null），条件满足立即返回；轮询间隔从 db.await.initial.interval 开始按 2 倍递增，
+     * 不超过 db.await.max.interval，并加入随机抖动避免并行测试同时打到数据库。
+     * 当前线程处于事务中时读到的是事务快照，轮询看不到其他连接的提交
+     * @return 满足条件的值
+     * @throws AssertionError 超时仍未满足条件
+     */
+    public <T> T awaitQuery(Duration timeout, String sql, RowMapper<T> rowMapper,
+                            Predicate<? super T> condition, Object... params) {
+        ConfigManager config = ConfigManager.getInstance();
+        long interval = Math.max(1, config.getIntProperty("db.await.initial.interval", 100));
+        long maxInterval = Math.max(interval, config.getIntProperty("db.await.max.interval", 2000));
+
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        int attempts = 0;
+        T value;
+        while (true) {
+            attempts++;
+            value = queryForFirst(sql, rowMapper, params);
+            if (condition.test(value)) {
+                logger.info("数据库条件满足：第 {} 次查询，耗时 {} ms", attempts,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return value;
             }
 
-            logger.info("查询返回 {} 条记录", resultList.size());
-            return resultList;
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                break;
+            }
+            // 抖动：在 [interval/2, interval] 内随机
+            long sleep = Math.min(remaining, interval / 2 + ThreadLocalRandom.current().nextLong(interval / 2 + 1));
+            logger.debug("数据库条件未满足，{} ms 后重试（第 {} 次）: {}", sleep, attempts, sql);
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Await query interrupted", e);
+            }
+            interval = Math.min(interval * 2, maxInterval);
+        }
+
+        throw new AssertionError(String.format("等待数据库条件超时（%d ms，共查询 %d 次）: %s，最后结果: %s",
+                timeout.toMillis(), attempts, sql, value));
+    }
+
+    /**
+     * 查询执行模板：预编译（使用语句缓存）、绑定参数、设置抓取大小和最大行数、交给 extractor 读取结果集
+     * @param maxRows 最大返回行数；0 表示不限制
+     */
+    private <T> T execute(String sql, int fetchSize, int maxRows, Object[] params, ResultSetExtractor<T> extractor) {
+        checkConnection();
+
+        try {
+            PreparedStatement stmt = prepare(sql);
+            bind(stmt, params);
+            stmt.setFetchSize(fetchSize);
+            stmt.setMaxRows(maxRows);
+            logStatement("执行查询", sql, params);
 
+            try (ResultSet rs = stmt.executeQuery()) {
+                return extractor.extract(rs);
+            } finally {
+                // 语句会被缓存复用，恢复默认抓取大小和最大行数
+                if (fetchSize != 0) {
+                    stmt.setFetchSize(0);
+                }
+                if (maxRows != 0) {
+                    stmt.setMaxRows(0);
+                }
+            }
         } catch (SQLException e) {
+            discardStatement(sql);
             logger.error("❌ 查询执行失败: {}", sql, e);
             throw new RuntimeException("Query execution failed", e);
         }
     }
 
+    /**
+     * 映射为 列名 → 值 的 Map，列名只在第一行读取一次
+     */
+    private static class ColumnMapRowMapper implements RowMapper<Map<String, Object>> {
+
+        private String[] columnNames;
+
+        @Override
+        public Map<String, Object> mapRow(ResultSet rs, int rowNum) throws SQLException {
+            if (columnNames == null) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                columnNames = new String[metaData.getColumnCount()];
+                for (int i = 0; i < columnNames.length; i++) {
+                    columnNames[i] = metaData.getColumnName(i + 1);
+                }
+            }
+            Map<String, Object> row = new HashMap<>(columnNames.length * 4 / 3 + 1);
+            for (int i = 0; i < columnNames.length; i++) {
+                row.put(columnNames[i], rs.getObject(i + 1));
+            }
+            return row;
+        }
+    }
+
     /**
      * 执行更新操作（INSERT, UPDATE, DELETE）
      */
     public int executeUpdate(String sql, Object... params) {
         checkConnection();
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            // 设置参数
-            for (int i = 0; i < params.length; i++) {
-                stmt.setObject(i + 1, params[i]);
-            }
-
-            logger.debug("执行更新: {}", sql);
-            if (params.length > 0) {
-                logger.debug("参数: {}", (Object) params);
-            }
+        try {
+            PreparedStatement stmt = prepare(sql);
+            bind(stmt, params);
+            logStatement("执行更新", sql, params);
 
             int affectedRows = stmt.executeUpdate();
             logger.info("更新影响 {} 行", affectedRows);
             return affectedRows;
 
         } catch (SQLException e) {
+            discardStatement(sql);
             logger.error("❌ 更新执行失败: {}", sql, e);
             throw new RuntimeException("Update execution failed", e);
         }
     }
 
     /**
-     * 查询单个值
+     * 查询单个值：第一行第一列，读到后立即停止，不构建行 Map
      */
     public Object queryForObject(String sql, Object... params) {
-        List<Map<String, Object>> results = executeQuery(sql, params);
-        if (results.isEmpty() || results.get(0).isEmpty()) {
-            return null;
-        }
-        return results.get(0).values().iterator().next();
+        return queryForFirst(sql, (rs, rowNum) -> rs.getObject(1), params);
     }
 
     /**
@@ -196,7 +532,7 @@ public class DatabaseManager {
     public int[] batchInsert(String sql, List<Object[]> batchParams) {
         checkConnection();
 
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
             for (Object[] params : batchParams) {
                 for (int i = 0; i < params.length; i++) {
                     stmt.setObject(i + 1, params[i]);
@@ -221,7 +557,7 @@ public class DatabaseManager {
     public void beginTransaction() {
         checkConnection();
         try {
-            connection.setAutoCommit(false);
+            getConnection().setAutoCommit(false);
             logger.info("事务已开启");
         } catch (SQLException e) {
             logger.error("❌ 开启事务失败", e);
@@ -234,6 +570,7 @@ public class DatabaseManager {
      */
     public void commitTransaction() {
         try {
+            Connection connection = connectionHolder.get();
             if (connection != null && !connection.getAutoCommit()) {
                 connection.commit();
                 connection.setAutoCommit(true);
@@ -250,6 +587,7 @@ public class DatabaseManager {
      */
     public void rollbackTransaction() {
         try {
+            Connection connection = connectionHolder.get();
             if (connection != null && !connection.getAutoCommit()) {
                 connection.rollback();
                 connection.setAutoCommit(true);
@@ -308,23 +646,13 @@ public class DatabaseManager {
     }
 
     /**
-     * 断开数据库连接
+     * 断开数据库连接：归还当前线程的连接，连接池保留给其他测试类复用
      */
     public void disconnect() {
-        if (connection != null) {
-            try {
-                if (!connection.getAutoCommit()) {
-                    connection.rollback();
-                    connection.setAutoCommit(true);
-                }
-                connection.close();
-                isConnected = false;
-                logger.info("✅ 数据库连接已关闭");
-            } catch (SQLException e) {
-                logger.error("❌ 关闭数据库连接失败", e);
-            } finally {
-                connection = null;
-            }
+        if (isConnected) {
+            releaseThreadConnection();
+            isConnected = false;
+            logger.info("✅ 数据库连接已归还连接池");
         }
     }
 
@@ -332,7 +660,7 @@ public class DatabaseManager {
      * 检查连接状态
      */
     private void checkConnection() {
-        if (!isConnected || connection == null) {
+        if (!isConnected) {
             throw new IllegalStateException("数据库未连接，请先调用 connect() 方法");
         }
     }
@@ -341,12 +669,12 @@ public class DatabaseManager {
      * 健康检查
      */
     public boolean healthCheck() {
+        if (!isConnected) {
+            return false;
+        }
         try {
-            if (connection == null || connection.isClosed()) {
-                return false;
-            }
             String sql = "SELECT 1";
-            try (Statement stmt = connection.createStatement();
+            try (Statement stmt = getConnection().createStatement();
                  ResultSet rs = stmt.executeQuery(sql)) {
                 return rs.next() && rs.getInt(1) == 1;
             }
@@ -362,18 +690,42 @@ public class DatabaseManager {
     public Map<String, Object> getDatabaseInfo() {
         Map<String, Object> info = new HashMap<>();
         try {
-            info.put("DatabaseProductName", connection.getMetaData().getDatabaseProductName());
-            info.put("DatabaseProductVersion", connection.getMetaData().getDatabaseProductVersion());
-            info.put("DriverName", connection.getMetaData().getDriverName());
-            info.put("DriverVersion", connection.getMetaData().getDriverVersion());
-            info.put("URL", connection.getMetaData().getURL());
-            info.put("UserName", connection.getMetaData().getUserName());
+            DatabaseMetaData metaData = getConnection().getMetaData();
+            info.put("DatabaseProductName", metaData.getDatabaseProductName());
+            info.put("DatabaseProductVersion", metaData.getDatabaseProductVersion());
+            info.put("DriverName", metaData.getDriverName());
+            info.put("DriverVersion", metaData.getDriverVersion());
+            info.put("URL", metaData.getURL());
+            info.put("UserName", metaData.getUserName());
         } catch (SQLException e) {
             logger.error("获取数据库信息失败", e);
         }
         return info;
     }
 
+    /**
+     * 按 SQL 文本缓存的 PreparedStatement（LRU），超过容量时关闭最久未使用的语句
+     */
+    private static class StatementCache extends LinkedHashMap<String, PreparedStatement> {
+
+        private final int capacity;
+
+        private StatementCache(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > capacity) {
+                statementCacheEvictions.increment();
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    }
+
 //    @Override
 //    protected void finalize() throws Throwable {
 //        try {
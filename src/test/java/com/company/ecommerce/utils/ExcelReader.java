@@ -2,14 +2,17 @@
 package com.company.ecommerce.utils;
 
 import com.company.ecommerce.config.ConfigManager;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.*;
 
+/**
+ * Excel 测试数据读取
+ * 基于 {@link XlsxStreamReader} 流式解析，返回的迭代器在数据提供者消费时才逐行读取，
+ * 不再一次性加载整个工作簿；迭代完成后自动关闭文件。
+ * 解析结果经 {@link ExcelSheetCache} 缓存，同一 sheet 在一次运行中只解析一次
+ */
 public class ExcelReader {
     
     private static final String TEST_DATA_PATH = ConfigManager.getInstance().getTestDataPath();
@@ -20,18 +23,10 @@ public class ExcelReader {
      * @return sheet名称列表
      */
     public static Iterator<String> getSheetNames(String fileName) {
-        String filePath = System.getProperty("user.dir") + TEST_DATA_PATH + fileName;
-
         List<String> sheetNames = new ArrayList<>();
 
-        try (FileInputStream fis = new FileInputStream(new File(filePath));
-             Workbook workbook = WorkbookFactory.create(fis)) {
-
-            int numberOfSheets = workbook.getNumberOfSheets();
-            for (int i = 0; i < numberOfSheets; i++) {
-                sheetNames.add(workbook.getSheetName(i));
-            }
-
+        try {
+            sheetNames.addAll(ExcelSheetCache.sheetNames(resolve(fileName)));
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -39,90 +34,84 @@ public class ExcelReader {
         return sheetNames.iterator();
     }
 
+    /**
+     * 首行为表头，之后每行按表头列映射为 Map（数字、日期按单元格格式转为文本）
+     * 返回的 Map 为只读的 {@link ExcelRow} 视图
+     */
     public static Iterator<Map<String, String>> getUserDataAsMap(String fileName, String sheetName) {
-        String filePath = System.getProperty("user.dir") + TEST_DATA_PATH + fileName;
-
-        List<Map<String, String>> testData = new ArrayList<>();
-
-        try (Workbook workbook = WorkbookFactory.create(new FileInputStream(filePath))) {
-            Sheet sheet = workbook.getSheet(sheetName);
-
-            // 读取表头
-            Row headerRow = sheet.getRow(0);
-            List<String> headers = new ArrayList<>();
-            for (Cell cell : headerRow) {
-                headers.add(cell.getStringCellValue());
+        Iterator<ExcelRow> rows = readRows(fileName, sheetName);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
             }
 
-            // 读取数据行
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-
-                Map<String, String> dataMap = new HashMap<>();
-                for (int j = 0; j < headers.size(); j++) {
-                    if (row.getCell(j) == null) continue;
-                    dataMap.put(headers.get(j), row.getCell(j).getStringCellValue());
-                }
-
-                testData.add(dataMap);
+            @Override
+            public Map<String, String> next() {
+                return rows.next();
             }
+        };
+    }
+
+    /**
+     * 首行为表头，之后每行返回共享表头索引的 {@link ExcelRow}，可按列名取文本、数字、日期、布尔值
+     */
+    public static Iterator<ExcelRow> readRows(String fileName, String sheetName) {
+        Iterator<XlsxStreamReader.Row> cursor;
+        try {
+            cursor = ExcelSheetCache.rows(resolve(fileName), sheetName);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
 
-        return testData.iterator();
-    }
+        // 读取表头
+        ExcelRow.Header header = cursor.hasNext() ? ExcelRow.Header.of(cursor.next()) : ExcelRow.Header.empty();
 
-    public static Iterator<Object[]> readTestData(String fileName, String sheetName) throws IOException {
-        List<Object[]> data = new ArrayList<>();
+        // 数据行按需读取
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
 
-        String filePath = System.getProperty("user.dir") + TEST_DATA_PATH + fileName;
+            @Override
+            public ExcelRow next() {
+                return new ExcelRow(header, cursor.next());
+            }
+        };
+    }
 
-        try (FileInputStream fis = new FileInputStream(filePath);
-             Workbook workbook = new XSSFWorkbook(fis)) {
+    /**
+     * 跳过表头，每行按单元格类型返回：字符串、数字（Double）、日期（Date）、布尔，公式单元格返回公式原文
+     */
+    public static Iterator<Object[]> readTestData(String fileName, String sheetName) throws IOException {
+        Iterator<XlsxStreamReader.Row> cursor = ExcelSheetCache.rows(resolve(fileName), sheetName);
 
-            Sheet sheet = workbook.getSheet(sheetName);
-            if (sheet == null) {
-                throw new IllegalArgumentException("Sheet '" + sheetName + "' not found in file " + fileName);
-            }
+        // 跳过表头
+        if (cursor.hasNext()) {
+            cursor.next();
+        }
 
-            Iterator<Row> rowIterator = sheet.iterator();
-            // 跳过表头
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
             }
 
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                List<Object> rowData = new ArrayList<>();
-
-                for (Cell cell : row) {
-                    switch (cell.getCellType()) {
-                        case STRING:
-                            rowData.add(cell.getStringCellValue());
-                            break;
-                        case NUMERIC:
-                            if (DateUtil.isCellDateFormatted(cell)) {
-                                rowData.add(cell.getDateCellValue());
-                            } else {
-                                rowData.add(cell.getNumericCellValue());
-                            }
-                            break;
-                        case BOOLEAN:
-                            rowData.add(cell.getBooleanCellValue());
-                            break;
-                        case FORMULA:
-                            rowData.add(cell.getCellFormula());
-                            break;
-                        default:
-                            rowData.add("");
-                    }
+            @Override
+            public Object[] next() {
+                List<XlsxStreamReader.Cell> cells = cursor.next().getCells();
+                Object[] rowData = new Object[cells.size()];
+                for (int i = 0; i < cells.size(); i++) {
+                    XlsxStreamReader.Cell cell = cells.get(i);
+                    rowData[i] = cell.getFormula() != null ? cell.getFormula() : cell.getValue();
                 }
-                data.add(rowData.toArray());
+                return rowData;
             }
-        }
+        };
+    }
 
-        return data.iterator();
+    private static File resolve(String fileName) {
+        return new File(System.getProperty("user.dir") + TEST_DATA_PATH + fileName);
     }
-}
\ No newline at end of file
+}
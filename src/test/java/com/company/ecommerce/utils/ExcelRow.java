@@ -0,0 +1,268 @@
+package com.company.ecommerce.utils;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Excel 数据行视图（只读）
+ * 同一 sheet 的所有行共享一个 {@link Header}（列名 → 列号），行只引用底层单元格，不再为每行复制一个 HashMap。
+ * 作为 Map&lt;String, String&gt; 使用时返回按单元格格式格式化后的文本；
+ * 也可以按列名直接取数字、日期、布尔值，数字单元格不经过字符串转换
+ */
+public final class ExcelRow extends AbstractMap<String, String> {
+
+    private final Header header;
+    private final XlsxStreamReader.Row row;
+
+    ExcelRow(Header header, XlsxStreamReader.Row row) {
+        this.header = header;
+        this.row = row;
+    }
+
+    /**
+     * 行号（从 0 开始，表头为第 0 行）
+     */
+    public int getRowIndex() {
+        return row.getIndex();
+    }
+
+    public Header getHeader() {
+        return header;
+    }
+
+    /**
+     * 列不存在或该行没有此单元格时返回 null
+     */
+    public XlsxStreamReader.Cell getCell(String name) {
+        int column = header.indexOf(name);
+        return column < 0 ? null : row.getCell(column);
+    }
+
+    public boolean isBlank(String name) {
+        XlsxStreamReader.Cell cell = getCell(name);
+        return cell == null || cell.getType() == XlsxStreamReader.CellType.BLANK || cell.getText().isEmpty();
+    }
+
+    public String getString(String name) {
+        XlsxStreamReader.Cell cell = getCell(name);
+        return cell == null ? null : cell.getText();
+    }
+
+    /**
+     * 数字单元格直接返回数值，文本单元格按数字解析
+     */
+    public double getDouble(String name) {
+        XlsxStreamReader.Cell cell = required(name);
+        switch (cell.getType()) {
+            case NUMBER:
+                return cell.getNumber();
+            case STRING:
+                try {
+                    return Double.parseDouble(cell.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalStateException(describe(name) + " 不是数字: " + cell.getText());
+                }
+            default:
+                throw new IllegalStateException(describe(name) + " 不是数字单元格: " + cell.getType());
+        }
+    }
+
+    public long getLong(String name) {
+        double value = getDouble(name);
+        long longValue = (long) value;
+        if (longValue != value) {
+            throw new IllegalStateException(describe(name) + " 不是整数: " + value);
+        }
+        return longValue;
+    }
+
+    public int getInt(String name) {
+        return Math.toIntExact(getLong(name));
+    }
+
+    /**
+     * 布尔单元格直接返回，文本单元格按 "true"/"false" 解析，数字单元格非 0 为 true
+     */
+    public boolean getBoolean(String name) {
+        XlsxStreamReader.Cell cell = required(name);
+        switch (cell.getType()) {
+            case BOOLEAN:
+            case NUMBER:
+                return cell.getBoolean();
+            case STRING:
+                return Boolean.parseBoolean(cell.getText().trim());
+            default:
+                throw new IllegalStateException(describe(name) + " 不是布尔单元格: " + cell.getType());
+        }
+    }
+
+    /**
+     * 日期格式单元格直接返回；未设置日期格式的数字单元格按 Excel 日期序列号转换
+     */
+    public Date getDate(String name) {
+        XlsxStreamReader.Cell cell = required(name);
+        switch (cell.getType()) {
+            case DATE:
+                return new Date(cell.getEpochMillis());
+            case NUMBER:
+                return DateUtil.getJavaDate(cell.getNumber());
+            default:
+                throw new IllegalStateException(describe(name) + " 不是日期单元格: " + cell.getType());
+        }
+    }
+
+    private XlsxStreamReader.Cell required(String name) {
+        XlsxStreamReader.Cell cell = getCell(name);
+        if (cell == null) {
+            throw new IllegalStateException(describe(name) + " 为空");
+        }
+        return cell;
+    }
+
+    private String describe(String name) {
+        return "第 " + (row.getIndex() + 1) + " 行列 '" + name + "'";
+    }
+
+    // ==================== Map 视图 ====================
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        return getString((String) key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && getCell((String) key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                int size = 0;
+                for (XlsxStreamReader.Cell cell : row.getCells()) {
+                    if (header.nameAt(cell.getColumn()) != null) {
+                        size++;
+                    }
+                }
+                return size;
+            }
+        };
+    }
+
+    /**
+     * 按列顺序遍历存在单元格且有表头的列，与原先"空单元格不放入 Map"的语义一致
+     */
+    private class EntryIterator implements Iterator<Entry<String, String>> {
+
+        private int position = -1;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            List<XlsxStreamReader.Cell> cells = row.getCells();
+            do {
+                position++;
+            } while (position < cells.size() && header.nameAt(cells.get(position).getColumn()) == null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < row.getCells().size();
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            XlsxStreamReader.Cell cell = row.getCells().get(position);
+            advance();
+            return new SimpleImmutableEntry<>(header.nameAt(cell.getColumn()), cell.getText());
+        }
+    }
+
+    /**
+     * 表头索引，同一 sheet 的所有行共享
+     * 列名重复时以最后一列为准（与原 HashMap 覆盖语义一致）
+     */
+    public static final class Header {
+
+        private final Map<String, Integer> index;
+        private final String[] names;
+
+        private Header(Map<String, Integer> index, String[] names) {
+            this.index = index;
+            this.names = names;
+        }
+
+        static Header of(XlsxStreamReader.Row headerRow) {
+            List<XlsxStreamReader.Cell> cells = headerRow.getCells();
+            int width = cells.isEmpty() ? 0 : cells.get(cells.size() - 1).getColumn() + 1;
+            String[] names = new String[width];
+            Map<String, Integer> index = new HashMap<>();
+            for (XlsxStreamReader.Cell cell : cells) {
+                Integer previous = index.put(cell.getText(), cell.getColumn());
+                if (previous != null) {
+                    names[previous] = null;
+                }
+                names[cell.getColumn()] = cell.getText();
+            }
+            return new Header(Collections.unmodifiableMap(index), names);
+        }
+
+        static Header empty() {
+            return new Header(Collections.emptyMap(), new String[0]);
+        }
+
+        /**
+         * 列名对应的列号，不存在时返回 -1
+         */
+        public int indexOf(String name) {
+            Integer column = index.get(name);
+            return column == null ? -1 : column;
+        }
+
+        /**
+         * 列号对应的列名，无表头时返回 null
+         */
+        public String nameAt(int column) {
+            return column < names.length ? names[column] : null;
+        }
+
+        /**
+         * 按列顺序返回列名
+         */
+        public List<String> getNames() {
+            List<String> result = new ArrayList<>(index.size());
+            for (String name : names) {
+                if (name != null) {
+                    result.add(name);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.company.ecommerce.utils;
+
+import com.company.ecommerce.config.ConfigManager;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 进程级 Excel sheet 解析缓存
+ * 以 (文件路径, sheet 名, 修改时间, 文件大小) 为 key，同一 sheet 在文件未变化时整个运行只解析一次，
+ * 并发请求同一 sheet 时只有一个线程解析，其余线程等待结果。
+ * 按单元格总数限制缓存大小（LRU 淘汰）；单个 sheet 超过上限时不缓存，直接流式读取。
+ * 行数据优先来自 {@link ExcelSnapshot} 二进制快照
+ *
+ * excel.cache.enabled=false 时每次都流式读取
+ */
+public final class ExcelSheetCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcelSheetCache.class);
+
+    private static final boolean ENABLED =
+            ConfigManager.getInstance().getBooleanProperty("excel.cache.enabled", true);
+    private static final long MAX_CELLS =
+            ConfigManager.getInstance().getIntProperty("excel.cache.max.cells", 1_000_000);
+
+    private static final Cache<Key, CachedSheet> SHEETS = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CELLS)
+            .weigher((Key key, CachedSheet sheet) -> sheet.weight)
+            .recordStats()
+            .build();
+
+    private static final Cache<Key, List<String>> SHEET_NAMES = CacheBuilder.newBuilder()
+            .maximumSize(64)
+            .recordStats()
+            .build();
+
+    private ExcelSheetCache() {
+        // 工具类，私有构造器
+    }
+
+    /**
+     * 读取 sheet 的全部行（含表头）：命中缓存时返回缓存行，否则流式读取
+     * @throws IllegalArgumentException sheet 不存在
+     */
+    public static Iterator<XlsxStreamReader.Row> rows(File file, String sheetName) throws IOException {
+        if (!ENABLED) {
+            return source(file, sheetName);
+        }
+        CachedSheet sheet = get(SHEETS, Key.of(file, sheetName), () -> load(file, sheetName));
+        if (sheet.rows == null) {
+            return source(file, sheetName);
+        }
+        return sheet.rows.iterator();
+    }
+
+    /**
+     * 按工作簿顺序返回 sheet 名称
+     */
+    public static List<String> sheetNames(File file) throws IOException {
+        if (!ENABLED) {
+            return sourceSheetNames(file);
+        }
+        return get(SHEET_NAMES, Key.of(file, null),
+                () -> Collections.unmodifiableList(sourceSheetNames(file)));
+    }
+
+    public static CacheStats stats() {
+        return SHEETS.stats();
+    }
+
+    public static void clear() {
+        SHEETS.invalidateAll();
+        SHEET_NAMES.invalidateAll();
+    }
+
+    /**
+     * 读取整个 sheet；超过缓存上限时放弃，返回"不缓存"标记
+     */
+    private static CachedSheet load(File file, String sheetName) throws IOException {
+        List<XlsxStreamReader.Row> rows = new ArrayList<>();
+        long cells = 0;
+        Iterator<XlsxStreamReader.Row> source = source(file, sheetName);
+        try {
+            while (source.hasNext()) {
+                XlsxStreamReader.Row row = source.next();
+                rows.add(row);
+                cells += row.getCells().size() + 1;
+                if (cells > MAX_CELLS) {
+                    logger.info("Sheet {}:{} 超过缓存上限 {} 个单元格，改为流式读取", file.getName(), sheetName, MAX_CELLS);
+                    return new CachedSheet(null, 1);
+                }
+            }
+        } finally {
+            if (source instanceof Closeable) {
+                ((Closeable) source).close();
+            }
+        }
+        logger.debug("缓存 Sheet {}:{}，{} 行", file.getName(), sheetName, rows.size());
+        return new CachedSheet(Collections.unmodifiableList(rows), (int) Math.max(1, cells));
+    }
+
+    /**
+     * 行数据来源：优先使用二进制快照，快照不可用时直接流式解析 xlsx
+     */
+    private static Iterator<XlsxStreamReader.Row> source(File file, String sheetName) throws IOException {
+        if (ExcelSnapshot.isEnabled()) {
+            try {
+                return ExcelSnapshot.rows(file, sheetName);
+            } catch (IOException e) {
+                logger.warn("Excel 快照不可用，直接读取 {}: {}", file.getName(), e.getMessage());
+            }
+        }
+        return XlsxStreamReader.open(file, sheetName);
+    }
+
+    private static List<String> sourceSheetNames(File file) throws IOException {
+        if (ExcelSnapshot.isEnabled()) {
+            try {
+                return ExcelSnapshot.sheetNames(file);
+            } catch (IOException e) {
+                logger.warn("Excel 快照不可用，直接读取 {}: {}", file.getName(), e.getMessage());
+            }
+        }
+        return XlsxStreamReader.sheetNames(file);
+    }
+
+    private static <V> V get(Cache<Key, V> cache, Key key, IOLoader<V> loader) throws IOException {
+        try {
+            return cache.get(key, loader::load);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOLoader<V> {
+        V load() throws IOException;
+    }
+
+    /**
+     * rows 为 null 表示 sheet 过大，不缓存
+     */
+    private static class CachedSheet {
+
+        private final List<XlsxStreamReader.Row> rows;
+        private final int weight;
+
+        private CachedSheet(List<XlsxStreamReader.Row> rows, int weight) {
+            this.rows = rows;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 文件修改后 lastModified/length 变化，旧条目不再命中并随 LRU 淘汰
+     */
+    private static class Key {
+
+        private final String path;
+        private final String sheet;
+        private final long lastModified;
+        private final long length;
+
+        private Key(String path, String sheet, long lastModified, long length) {
+            this.path = path;
+            this.sheet = sheet;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        private static Key of(File file, String sheet) {
+            File absolute = file.getAbsoluteFile();
+            return new Key(absolute.getPath(), sheet, absolute.lastModified(), absolute.length());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return lastModified == other.lastModified && length == other.length
+                    && path.equals(other.path) && Objects.equals(sheet, other.sheet);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, sheet, lastModified, length);
+        }
+    }
+}
@@ -0,0 +1,443 @@
+package com.company.ecommerce.utils;
+
+import com.company.ecommerce.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Excel 二进制快照
+ * 首次读取某个 xlsx 时把所有 sheet 编译为紧凑的二进制文件（字符串表 + 行偏移表 + 行记录），
+ * 之后直接内存映射读取，不再解压和解析 XML。快照文件名包含源文件的修改时间和大小，
+ * 源文件变化后自动重新编译，旧快照尽力删除（已映射的文件在 Windows 上可能删不掉，下次再删）
+ *
+ * 文件格式（大端）：
+ * <pre>
+ * header    : magic(int) version(int) sourceLastModified(long) sourceLength(long) directoryOffset(long)
+ * rows      : rowIndex(int) cellCount(int) { column(int) formulaId(int) type(byte) payload }*
+ * directory : stringCount(int) { byteLength(int) utf8Bytes }*
+ *             sheetCount(int)  { nameId(int) rowCount(int) rowOffset(long)* }*
+ * </pre>
+ * payload 按 type：STRING=textId；NUMBER=double textId；DATE=epochMillis(long) textId；BOOLEAN=byte；ERROR=textId；BLANK=无
+ */
+public final class ExcelSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExcelSnapshot.class);
+
+    private static final int MAGIC = 0x58534E50; // "XSNP"
+    private static final int VERSION = 2;
+    private static final int HEADER_DIRECTORY_OFFSET = 24;
+
+    private static final byte STRING = 1;
+    private static final byte NUMBER = 2;
+    private static final byte DATE = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte ERROR = 5;
+    private static final byte BLANK = 6;
+
+    private static final boolean ENABLED =
+            ConfigManager.getInstance().getBooleanProperty("excel.snapshot.enabled", true);
+    private static final Path SNAPSHOT_DIR = Paths.get(System.getProperty("user.dir"),
+            ConfigManager.getInstance().getProperty("excel.snapshot.dir", "target/excel-snapshots"));
+
+    private static final ConcurrentMap<String, ExcelSnapshot> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    private final long sourceLastModified;
+    private final long sourceLength;
+    private final ByteBuffer buffer;
+    private final int[] stringOffsets;
+    private final String[] strings;
+    private final Map<String, SheetEntry> sheets;
+    private final List<String> sheetNames;
+
+    private ExcelSnapshot(long sourceLastModified, long sourceLength, ByteBuffer buffer, int[] stringOffsets,
+                          Map<String, SheetEntry> sheets, List<String> sheetNames) {
+        this.sourceLastModified = sourceLastModified;
+        this.sourceLength = sourceLength;
+        this.buffer = buffer;
+        this.stringOffsets = stringOffsets;
+        this.strings = new String[stringOffsets.length];
+        this.sheets = sheets;
+        this.sheetNames = sheetNames;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * 读取 sheet 的全部行（含表头）
+     * @throws IllegalArgumentException sheet 不存在
+     */
+    public static Iterator<XlsxStreamReader.Row> rows(File source, String sheetName) throws IOException {
+        ExcelSnapshot snapshot = of(source);
+        SheetEntry sheet = snapshot.sheets.get(sheetName);
+        if (sheet == null) {
+            throw new IllegalArgumentException("Sheet '" + sheetName + "' not found in file " + source.getName());
+        }
+        return snapshot.new RowIterator(sheet);
+    }
+
+    public static List<String> sheetNames(File source) throws IOException {
+        return of(source).sheetNames;
+    }
+
+    /**
+     * 取得与源文件当前版本一致的快照，必要时编译
+     */
+    private static ExcelSnapshot of(File source) throws IOException {
+        File file = source.getAbsoluteFile();
+        long lastModified = file.lastModified();
+        long length = file.length();
+        if (lastModified == 0L) {
+            throw new IOException("文件不存在: " + file);
+        }
+
+        ExcelSnapshot current = SNAPSHOTS.get(file.getPath());
+        if (current != null && current.matches(lastModified, length)) {
+            return current;
+        }
+        try {
+            return SNAPSHOTS.compute(file.getPath(), (key, cached) -> {
+                if (cached != null && cached.matches(lastModified, length)) {
+                    return cached;
+                }
+                try {
+                    return load(file, lastModified, length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private boolean matches(long lastModified, long length) {
+        return sourceLastModified == lastModified && sourceLength == length;
+    }
+
+    private static ExcelSnapshot load(File source, long lastModified, long length) throws IOException {
+        Path snapshot = snapshotPath(source, lastModified, length);
+        if (Files.exists(snapshot)) {
+            try {
+                return map(snapshot, lastModified, length);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Excel 快照损坏，重新编译: {} ({})", snapshot, e.getMessage());
+            }
+        }
+
+        long start = System.nanoTime();
+        compile(source, snapshot, lastModified, length);
+        logger.info("已编译 Excel 快照 {} -> {} ({} ms)", source.getName(), snapshot.getFileName(),
+                (System.nanoTime() - start) / 1_000_000);
+        deleteStale(source, snapshot);
+        return map(snapshot, lastModified, length);
+    }
+
+    /**
+     * 同名文件可能位于不同目录，文件名中加入目录哈希
+     */
+    private static Path snapshotPath(File source, long lastModified, long length) {
+        return SNAPSHOT_DIR.resolve(snapshotPrefix(source) + lastModified + "-" + length + ".xsnap");
+    }
+
+    private static String snapshotPrefix(File source) {
+        return source.getName() + "-" + Integer.toHexString(source.getParent().hashCode()) + "-";
+    }
+
+    private static void deleteStale(File source, Path current) {
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(SNAPSHOT_DIR, snapshotPrefix(source) + "*.xsnap")) {
+            for (Path path : stale) {
+                if (!path.equals(current)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("删除旧 Excel 快照失败: {}", e.getMessage());
+        }
+    }
+
+    // ==================== 编译 ====================
+
+    private static void compile(File source, Path snapshot, long lastModified, long length) throws IOException {
+        Files.createDirectories(SNAPSHOT_DIR);
+        Path tmp = Files.createTempFile(SNAPSHOT_DIR, source.getName(), ".tmp");
+        try {
+            Map<String, Integer> stringIds = new LinkedHashMap<>();
+            List<String> names = XlsxStreamReader.sheetNames(source);
+            // sheet 名写在目录中，需先于字符串表登记
+            names.forEach(name -> stringId(name, stringIds));
+            List<long[]> rowOffsets = new ArrayList<>(names.size());
+            List<Integer> rowCounts = new ArrayList<>(names.size());
+            long directoryOffset;
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(lastModified);
+                out.writeLong(length);
+                out.writeLong(0L); // directoryOffset，写完后回填
+
+                for (String name : names) {
+                    long[] offsets = new long[64];
+                    int count = 0;
+                    try (XlsxStreamReader.SheetCursor cursor = XlsxStreamReader.open(source, name)) {
+                        while (cursor.hasNext()) {
+                            if (count == offsets.length) {
+                                offsets = Arrays.copyOf(offsets, count * 2);
+                            }
+                            offsets[count++] = out.size();
+                            writeRow(out, cursor.next(), stringIds);
+                        }
+                    }
+                    rowOffsets.add(offsets);
+                    rowCounts.add(count);
+                }
+
+                directoryOffset = out.size();
+                if (directoryOffset >= Integer.MAX_VALUE) {
+                    throw new IOException("Excel 数据过大，无法生成快照: " + source);
+                }
+
+                out.writeInt(stringIds.size());
+                for (String value : stringIds.keySet()) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                out.writeInt(names.size());
+                for (int i = 0; i < names.size(); i++) {
+                    out.writeInt(stringId(names.get(i), stringIds));
+                    out.writeInt(rowCounts.get(i));
+                    long[] offsets = rowOffsets.get(i);
+                    for (int r = 0; r < rowCounts.get(i); r++) {
+                        out.writeLong(offsets[r]);
+                    }
+                }
+            }
+
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer offset = ByteBuffer.allocate(Long.BYTES).putLong(0, directoryOffset);
+                channel.write(offset, HEADER_DIRECTORY_OFFSET);
+            }
+
+            try {
+                Files.move(tmp, snapshot, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void writeRow(DataOutputStream out, XlsxStreamReader.Row row,
+                                 Map<String, Integer> stringIds) throws IOException {
+        List<XlsxStreamReader.Cell> cells = row.getCells();
+        out.writeInt(row.getIndex());
+        out.writeInt(cells.size());
+        for (XlsxStreamReader.Cell cell : cells) {
+            out.writeInt(cell.getColumn());
+            out.writeInt(cell.getFormula() == null ? -1 : stringId(cell.getFormula(), stringIds));
+
+            switch (cell.getType()) {
+                case NUMBER:
+                    out.writeByte(NUMBER);
+                    out.writeDouble(cell.getNumber());
+                    out.writeInt(stringId(cell.getText(), stringIds));
+                    break;
+                case DATE:
+                    out.writeByte(DATE);
+                    out.writeLong(cell.getEpochMillis());
+                    out.writeInt(stringId(cell.getText(), stringIds));
+                    break;
+                case BOOLEAN:
+                    out.writeByte(BOOLEAN);
+                    out.writeByte(cell.getBoolean() ? 1 : 0);
+                    break;
+                case ERROR:
+                    out.writeByte(ERROR);
+                    out.writeInt(stringId(cell.getText(), stringIds));
+                    break;
+                case BLANK:
+                    out.writeByte(BLANK);
+                    break;
+                default:
+                    out.writeByte(STRING);
+                    out.writeInt(stringId(cell.getText(), stringIds));
+                    break;
+            }
+        }
+    }
+
+    private static int stringId(String value, Map<String, Integer> stringIds) {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = stringIds.size();
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    // ==================== 读取 ====================
+
+    private static ExcelSnapshot map(Path snapshot, long lastModified, long length) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getLong(8) != lastModified || buffer.getLong(16) != length) {
+            throw new IOException("快照版本不匹配");
+        }
+
+        int pos = (int) buffer.getLong(HEADER_DIRECTORY_OFFSET);
+        int[] stringOffsets = new int[buffer.getInt(pos)];
+        pos += Integer.BYTES;
+        for (int i = 0; i < stringOffsets.length; i++) {
+            stringOffsets[i] = pos;
+            pos += Integer.BYTES + buffer.getInt(pos);
+        }
+
+        int sheetCount = buffer.getInt(pos);
+        pos += Integer.BYTES;
+        Map<String, SheetEntry> sheets = new HashMap<>();
+        List<String> names = new ArrayList<>(sheetCount);
+        for (int i = 0; i < sheetCount; i++) {
+            String name = decode(buffer, stringOffsets[buffer.getInt(pos)]);
+            int rowCount = buffer.getInt(pos + Integer.BYTES);
+            int rowOffsetTable = pos + 2 * Integer.BYTES;
+            names.add(name);
+            sheets.put(name, new SheetEntry(rowCount, rowOffsetTable));
+            pos = rowOffsetTable + rowCount * Long.BYTES;
+        }
+
+        return new ExcelSnapshot(lastModified, length, buffer, stringOffsets,
+                Collections.unmodifiableMap(sheets), Collections.unmodifiableList(names));
+    }
+
+    private static String decode(ByteBuffer buffer, int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 字符串按需解码并缓存；并发下可能重复解码，结果相同，无需加锁
+     */
+    private String string(int id) {
+        String value = strings[id];
+        if (value == null) {
+            value = decode(buffer, stringOffsets[id]);
+            strings[id] = value;
+        }
+        return value;
+    }
+
+    private static class SheetEntry {
+
+        private final int rowCount;
+        private final int rowOffsetTable;
+
+        private SheetEntry(int rowCount, int rowOffsetTable) {
+            this.rowCount = rowCount;
+            this.rowOffsetTable = rowOffsetTable;
+        }
+    }
+
+    /**
+     * 按行偏移表逐行解码，只使用绝对位置读取，多个迭代器可并发读同一映射
+     */
+    private class RowIterator implements Iterator<XlsxStreamReader.Row> {
+
+        private final SheetEntry sheet;
+        private int next;
+
+        private RowIterator(SheetEntry sheet) {
+            this.sheet = sheet;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < sheet.rowCount;
+        }
+
+        @Override
+        public XlsxStreamReader.Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int pos = (int) buffer.getLong(sheet.rowOffsetTable + next++ * Long.BYTES);
+            int rowIndex = buffer.getInt(pos);
+            int cellCount = buffer.getInt(pos + 4);
+            pos += 8;
+
+            List<XlsxStreamReader.Cell> cells = new ArrayList<>(cellCount);
+            for (int i = 0; i < cellCount; i++) {
+                int column = buffer.getInt(pos);
+                int formulaId = buffer.getInt(pos + 4);
+                byte type = buffer.get(pos + 8);
+                pos += 9;
+                String formula = formulaId < 0 ? null : string(formulaId);
+
+                switch (type) {
+                    case NUMBER:
+                        cells.add(XlsxStreamReader.Cell.number(column, buffer.getDouble(pos),
+                                string(buffer.getInt(pos + 8)), formula));
+                        pos += 12;
+                        break;
+                    case DATE:
+                        cells.add(XlsxStreamReader.Cell.date(column, buffer.getLong(pos),
+                                string(buffer.getInt(pos + 8)), formula));
+                        pos += 12;
+                        break;
+                    case BOOLEAN:
+                        cells.add(XlsxStreamReader.Cell.bool(column, buffer.get(pos) != 0, formula));
+                        pos += 1;
+                        break;
+                    case ERROR:
+                        cells.add(XlsxStreamReader.Cell.error(column, string(buffer.getInt(pos)), formula));
+                        pos += 4;
+                        break;
+                    case BLANK:
+                        cells.add(XlsxStreamReader.Cell.blank(column, formula));
+                        break;
+                    default:
+                        cells.add(XlsxStreamReader.Cell.string(column, string(buffer.getInt(pos)), formula));
+                        pos += 4;
+                        break;
+                }
+            }
+            return new XlsxStreamReader.Row(rowIndex, Collections.unmodifiableList(cells));
+        }
+    }
+}
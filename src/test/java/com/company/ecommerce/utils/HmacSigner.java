@@ -0,0 +1,130 @@
+package com.company.ecommerce.utils;
+
+import com.company.ecommerce.config.ConfigManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * HMAC 签名工具
+ * 密钥只初始化一次，每个线程持有一个已初始化的 Mac，签名时直接使用序列化后的字节
+ */
+public class HmacSigner {
+
+    /**
+     * 支持的签名算法
+     */
+    public enum Algorithm {
+        HMAC_SHA1("HmacSHA1", "HMAC-SHA1"),
+        HMAC_SHA256("HmacSHA256", "HMAC-SHA256");
+
+        private final String jcaName;
+        private final String scheme;
+
+        Algorithm(String jcaName, String scheme) {
+            this.jcaName = jcaName;
+            this.scheme = scheme;
+        }
+
+        public String getJcaName() {
+            return jcaName;
+        }
+
+        /**
+         * Content-Signature 请求头中的算法前缀
+         */
+        public String getScheme() {
+            return scheme;
+        }
+
+        public static Algorithm fromJcaName(String name) {
+            for (Algorithm algorithm : values()) {
+                if (algorithm.jcaName.equalsIgnoreCase(name)) {
+                    return algorithm;
+                }
+            }
+            throw new IllegalArgumentException("不支持的签名算法: " + name);
+        }
+    }
+
+    private static volatile HmacSigner apiSigner;
+
+    private final Algorithm algorithm;
+    private final byte[] keyBytes;
+    private final Mac prototype;
+    private final ThreadLocal<Mac> macHolder;
+
+    public HmacSigner(Algorithm algorithm, String key) {
+        this.algorithm = algorithm;
+        this.keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        this.prototype = createMac(algorithm, keyBytes);
+        this.macHolder = ThreadLocal.withInitial(this::copyPrototype);
+    }
+
+    /**
+     * 获取接口签名器（密钥为 secretKey + serviceCode，算法取 app.api.sign.algorithm，进程内只初始化一次）
+     */
+    public static HmacSigner forApi() {
+        if (apiSigner == null) {
+            synchronized (HmacSigner.class) {
+                if (apiSigner == null) {
+                    ConfigManager config = ConfigManager.getInstance();
+                    Algorithm algorithm = Algorithm.fromJcaName(
+                            config.getProperty("app.api.sign.algorithm", Algorithm.HMAC_SHA1.getJcaName()));
+                    apiSigner = new HmacSigner(algorithm, config.getApiSecretKey() + config.getServiceCode());
+                }
+            }
+        }
+        return apiSigner;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * 计算签名（原始字节）
+     */
+    public byte[] sign(byte[] data, int offset, int length) {
+        Mac mac = macHolder.get();
+        mac.update(data, offset, length);
+        // doFinal 会重置 Mac，可直接用于下一次签名
+        return mac.doFinal();
+    }
+
+    /**
+     * 计算签名并进行 Base64 编码
+     */
+    public String signToBase64(byte[] data) {
+        return Base64.getEncoder().encodeToString(sign(data, 0, data.length));
+    }
+
+    /**
+     * 生成 Content-Signature 请求头的值，如 "HMAC-SHA1 xxxx"
+     */
+    public String headerValue(byte[] body) {
+        return algorithm.getScheme() + " " + signToBase64(body);
+    }
+
+    private Mac copyPrototype() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            // 部分 Provider 不支持 clone，退化为重新初始化
+            return createMac(algorithm, keyBytes);
+        }
+    }
+
+    private static Mac createMac(Algorithm algorithm, byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(algorithm.getJcaName());
+            mac.init(new SecretKeySpec(key, algorithm.getJcaName()));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(algorithm.getScheme() + "算法不可用或密钥无效", e);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.company.ecommerce.utils;
+
+import com.company.ecommerce.config.ConfigManager;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * 共享 HTTP 连接池
+ * BaseAPITest 与 APIUtils 的所有请求都经由此连接池发出，复用 TCP/TLS 连接
+ */
+@SuppressWarnings("deprecation")
+public class HttpClientPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientPool.class);
+
+    private static volatile HttpClientPool instance;
+
+    private final SharedConnectionManager connectionManager;
+    private final RestAssuredConfig restAssuredConfig;
+    private final ScheduledExecutorService evictor;
+    private final long keepAliveMillis;
+
+    private HttpClientPool() {
+        ConfigManager config = ConfigManager.getInstance();
+        int maxTotal = config.getIntProperty("http.pool.max.total", 200);
+        int maxPerRoute = config.getIntProperty("http.pool.max.per.route", 50);
+        int idleTimeout = config.getIntProperty("http.pool.idle.timeout", 30);
+        this.keepAliveMillis = TimeUnit.SECONDS.toMillis(config.getIntProperty("http.pool.keep.alive", 60));
+
+        connectionManager = new SharedConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            // 优先使用服务端 Keep-Alive: timeout=N，否则使用配置值
+            HeaderElementIterator it = new BasicHeaderElementIterator(
+                    response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (it.hasNext()) {
+                HeaderElement element = it.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Long.parseLong(element.getValue()) * 1000;
+                    } catch (NumberFormatException ignored) {
+                        // 非法值时回退到默认配置
+                    }
+                }
+            }
+            return keepAliveMillis;
+        };
+
+        HttpClientConfig httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> {
+                    DefaultHttpClient client = new DefaultHttpClient(connectionManager) {
+                        @Override
+                        protected HttpRequestExecutor createRequestExecutor() {
+                            return new TimedRequestExecutor();
+                        }
+                    };
+                    client.setKeepAliveStrategy(keepAliveStrategy);
+                    return client;
+                });
+        restAssuredConfig = RestAssuredConfig.config().httpClient(httpClientConfig);
+
+        // 定期回收过期与空闲连接
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleAtFixedRate(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeout, TimeUnit.SECONDS);
+        }, idleTimeout, idleTimeout, TimeUnit.SECONDS);
+
+        logger.info("✅ HTTP 连接池初始化完成，maxTotal: {}, maxPerRoute: {}, idleTimeout: {}s",
+                maxTotal, maxPerRoute, idleTimeout);
+    }
+
+    /**
+     * 获取单例实例
+     */
+    public static HttpClientPool getInstance() {
+        if (instance == null) {
+            synchronized (HttpClientPool.class) {
+                if (instance == null) {
+                    instance = new HttpClientPool();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 创建使用共享连接池的请求规范
+     */
+    public RequestSpecification newRequest() {
+        return given().config(restAssuredConfig).filter(ApiLatencyRecorder.filter());
+    }
+
+    public RestAssuredConfig getRestAssuredConfig() {
+        return restAssuredConfig;
+    }
+
+    /**
+     * 连接池统计（leased/available/pending/max）
+     */
+    public PoolStats getStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public String describeStats() {
+        PoolStats stats = getStats();
+        return String.format("leased=%d, available=%d, pending=%d, max=%d",
+                stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
+    /**
+     * 关闭连接池（套件结束时调用）
+     */
+    public static void shutdown() {
+        synchronized (HttpClientPool.class) {
+            if (instance != null) {
+                logger.info("HTTP 连接池统计: {}", instance.describeStats());
+                instance.evictor.shutdownNow();
+                instance.connectionManager.close();
+                instance = null;
+                logger.info("HTTP 连接池已关闭");
+            }
+        }
+    }
+
+    /**
+     * RestAssured 在每次请求结束后会调用 shutdown()，这里忽略该调用以保留池中连接，
+     * 真正的关闭由 {@link HttpClientPool#shutdown()} 负责
+     */
+    private static class SharedConnectionManager extends PoolingClientConnectionManager {
+
+        @Override
+        protected ClientConnectionOperator createConnectionOperator(SchemeRegistry schemeRegistry) {
+            return new TimedConnectionOperator(schemeRegistry);
+        }
+
+        @Override
+        public void shutdown() {
+            // 共享连接池，不随单个 HttpClient 关闭
+        }
+
+        void close() {
+            super.shutdown();
+        }
+    }
+
+    /**
+     * 新建连接时记录 DNS 解析与 TCP/TLS 建连耗时（复用连接不会经过这里）
+     */
+    private static class TimedConnectionOperator extends DefaultClientConnectionOperator {
+
+        TimedConnectionOperator(SchemeRegistry schemeRegistry) {
+            super(schemeRegistry);
+        }
+
+        @Override
+        protected InetAddress[] resolveHostname(String host) throws UnknownHostException {
+            long start = System.nanoTime();
+            try {
+                return super.resolveHostname(host);
+            } finally {
+                ApiLatencyRecorder.RequestTimings timings = ApiLatencyRecorder.currentTimings();
+                if (timings != null) {
+                    timings.addDns(System.nanoTime() - start);
+                }
+            }
+        }
+
+        @Override
+        public void openConnection(OperatedClientConnection conn, HttpHost target, InetAddress local,
+                                   HttpContext context, HttpParams params) throws IOException {
+            ApiLatencyRecorder.RequestTimings timings = ApiLatencyRecorder.currentTimings();
+            long dnsBefore = timings != null ? timings.dnsNanos : 0;
+            long start = System.nanoTime();
+            try {
+                super.openConnection(conn, target, local, context, params);
+            } finally {
+                if (timings != null) {
+                    // 扣除其中的 DNS 解析时间
+                    timings.addConnect(System.nanoTime() - start - (timings.dnsNanos - dnsBefore));
+                }
+            }
+        }
+    }
+
+    /**
+     * 记录请求开始发送与收到响应头的时间点，用于计算 TTFB
+     */
+    private static class TimedRequestExecutor extends HttpRequestExecutor {
+
+        @Override
+        protected HttpResponse doSendRequest(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                throws IOException, HttpException {
+            ApiLatencyRecorder.RequestTimings timings = ApiLatencyRecorder.currentTimings();
+            if (timings != null) {
+                timings.markSendStart();
+            }
+            return super.doSendRequest(request, conn, context);
+        }
+
+        @Override
+        protected HttpResponse doReceiveResponse(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                throws HttpException, IOException {
+            HttpResponse response = super.doReceiveResponse(request, conn, context);
+            ApiLatencyRecorder.RequestTimings timings = ApiLatencyRecorder.currentTimings();
+            if (timings != null) {
+                timings.markFirstByte();
+            }
+            return response;
+        }
+    }
+}
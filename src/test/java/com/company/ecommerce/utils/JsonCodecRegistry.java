@@ -0,0 +1,119 @@
+package com.company.ecommerce.utils;
+
+import com.company.ecommerce.models.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON 编解码器注册中心
+ * 全局共享预先配置好的 ObjectReader / ObjectWriter（均为不可变、线程安全），
+ * 避免各处 new ObjectMapper() 重复做类型内省和序列化器缓存
+ */
+public final class JsonCodecRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonCodecRegistry.class);
+
+    /**
+     * 基础 Mapper（默认配置），用于解析和签名
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * 报告 Mapper：日期不输出时间戳，空对象不报错
+     */
+    private static final ObjectMapper REPORT_MAPPER = MAPPER.copy()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    // 签名用：Map 按 key 排序，忽略 null 字段
+    private static final ObjectWriter SIGNING_WRITER = MAPPER.copy()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .writer()
+            .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    // 报告用：格式化输出
+    private static final ObjectWriter PRETTY_WRITER = REPORT_MAPPER.writerWithDefaultPrettyPrinter();
+
+    private static final ObjectWriter PRETTY_NON_NULL_WRITER = REPORT_MAPPER.copy()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .writerWithDefaultPrettyPrinter();
+
+    // 断言用：解析为 JsonNode 树
+    private static final ObjectReader TREE_READER = MAPPER.reader();
+
+    private static final ObjectReader OBJECT_READER = MAPPER.readerFor(Object.class);
+
+    private static final ObjectReader STRING_MAP_READER =
+            MAPPER.readerFor(new TypeReference<LinkedHashMap<String, String>>() {});
+
+    private static volatile boolean warmedUp = false;
+
+    private JsonCodecRegistry() {
+        // 工具类，私有构造器
+    }
+
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    public static ObjectWriter signingWriter() {
+        return SIGNING_WRITER;
+    }
+
+    public static ObjectWriter prettyWriter() {
+        return PRETTY_WRITER;
+    }
+
+    public static ObjectWriter prettyNonNullWriter() {
+        return PRETTY_NON_NULL_WRITER;
+    }
+
+    public static ObjectReader treeReader() {
+        return TREE_READER;
+    }
+
+    public static ObjectReader objectReader() {
+        return OBJECT_READER;
+    }
+
+    public static ObjectReader stringMapReader() {
+        return STRING_MAP_READER;
+    }
+
+    /**
+     * 预热：提前构建常用类型的序列化器/反序列化器，避免首个用例承担初始化开销
+     */
+    public static void warmUp() {
+        if (warmedUp) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            String sample = "{\"status\":1,\"message\":\"ok\",\"data\":{\"id\":\"1\",\"items\":[1,2]}}";
+            JsonNode tree = TREE_READER.readTree(sample);
+            Map<String, String> map = STRING_MAP_READER.readValue("{\"key\":\"value\"}");
+            Object plain = OBJECT_READER.readValue(sample);
+
+            SIGNING_WRITER.writeValueAsBytes(tree);
+            SIGNING_WRITER.writeValueAsBytes(map);
+            SIGNING_WRITER.writeValueAsBytes(User.builder().displayName("warmup").build());
+            PRETTY_WRITER.writeValueAsString(plain);
+            PRETTY_NON_NULL_WRITER.writeValueAsString(map);
+        } catch (IOException e) {
+            logger.warn("JSON 编解码器预热失败: {}", e.getMessage());
+        }
+        warmedUp = true;
+        logger.info("✅ JSON 编解码器预热完成，耗时 {} ms", System.currentTimeMillis() - start);
+    }
+}
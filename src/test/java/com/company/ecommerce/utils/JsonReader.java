@@ -1,26 +1,25 @@
 // src/main/java/com/company/ecommerce/utils/JsonReader.java
 package com.company.ecommerce.utils;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Iterator;
 import java.util.List;
 
 public class JsonReader {
 
-    private static final ObjectMapper mapper = new ObjectMapper();
-
     public static <T> T[][] readTestData(String fileName, Class<T[]> clazz) {
         try {
             String filePath = System.getProperty("user.dir") + "/src/test/resources/testdata/" + fileName;
             String content = new String(Files.readAllBytes(Paths.get(filePath)));
 
             // 读取为数组
-            T[] array = mapper.readValue(content, clazz);
+            T[] array = JsonCodecRegistry.mapper().readValue(content, clazz);
 
             // 转换为 Object[][]
             @SuppressWarnings("unchecked")
@@ -43,7 +42,7 @@ public class JsonReader {
             String filePath = System.getProperty("user.dir") + "/src/test/resources/testdata/" + fileName;
             String content = new String(Files.readAllBytes(Paths.get(filePath)));
 
-            List<T> list = mapper.readValue(content, new TypeReference<List<T>>() {});
+            List<T> list = JsonCodecRegistry.mapper().readValue(content, new TypeReference<List<T>>() {});
 
             Object[][] result = new Object[list.size()][1];
             for (int i = 0; i < list.size(); i++) {
@@ -55,4 +54,28 @@ public class JsonReader {
             throw new RuntimeException("Failed to read JSON file: " + fileName, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 流式读取顶层 JSON 数组，每个元素作为一组参数；元素在数据提供者消费时才解析，读完后自动关闭文件
+     */
+    public static <T> Iterator<Object[]> iterateTestData(String fileName, Class<T> clazz) {
+        try {
+            File file = new File(System.getProperty("user.dir") + "/src/test/resources/testdata/" + fileName);
+            MappingIterator<T> values = JsonCodecRegistry.mapper().readerFor(clazz).readValues(file);
+
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return values.hasNext();
+                }
+
+                @Override
+                public Object[] next() {
+                    return new Object[]{values.next()};
+                }
+            };
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read JSON file: " + fileName, e);
+        }
+    }
+}
@@ -1,31 +1,17 @@
 package com.company.ecommerce.utils;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.restassured.response.Response;
 
+import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class JsonUtils {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-
-    static {
-        // 启用漂亮的格式化输出
-        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        // 处理日期格式
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        // 处理空对象
-        objectMapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
-    }
-
     public static Map<String, String> jsonStringToMap(String jsonString) {
         try {
-            return new ObjectMapper().readValue(jsonString, new TypeReference<Map<String, String>>() {});
-        } catch (JsonProcessingException e) {
+            return JsonCodecRegistry.stringMapReader().readValue(jsonString);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
 
@@ -40,8 +26,8 @@ public class JsonUtils {
             // 如果是字符串，先尝试解析为JSON对象再格式化
             if (object instanceof String) {
                 try {
-                    Object json = objectMapper.readValue((String) object, Object.class);
-                    return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(json);
+                    Object json = JsonCodecRegistry.objectReader().readValue((String) object);
+                    return JsonCodecRegistry.prettyWriter().writeValueAsString(json);
                 } catch (Exception e) {
                     // 不是有效的JSON字符串，直接返回原字符串
                     return (String) object;
@@ -49,8 +35,7 @@ public class JsonUtils {
             }
 
             // 普通对象转换为格式化JSON
-            return objectMapper.writerWithDefaultPrettyPrinter()
-                    .writeValueAsString(object);
+            return JsonCodecRegistry.prettyWriter().writeValueAsString(object);
         } catch (Exception e) {
             // 转换失败时返回对象的toString()
             return "Failed to convert to JSON: " + object.toString();
@@ -59,15 +44,12 @@ public class JsonUtils {
 
     // 重载方法，支持自定义配置
     public static String toPrettyJson(Object object, boolean includeNulls) {
-        ObjectMapper customMapper = new ObjectMapper();
-        customMapper.enable(SerializationFeature.INDENT_OUTPUT);
-
-        if (!includeNulls) {
-            customMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        }
+        ObjectWriter writer = includeNulls
+                ? JsonCodecRegistry.prettyWriter()
+                : JsonCodecRegistry.prettyNonNullWriter();
 
         try {
-            return customMapper.writeValueAsString(object);
+            return writer.writeValueAsString(object);
         } catch (Exception e) {
             return object.toString();
         }
@@ -96,7 +78,7 @@ public class JsonUtils {
             if (body != null && !body.isEmpty()) {
                 // 尝试解析为 JSON
                 try {
-                    Object jsonBody = objectMapper.readValue(body, Object.class);
+                    Object jsonBody = JsonCodecRegistry.objectReader().readValue(body);
                     responseInfo.put("body", jsonBody);
                 } catch (Exception e) {
                     // 如果不是 JSON，直接存字符串
@@ -114,8 +96,7 @@ public class JsonUtils {
                 responseInfo.put("cookies", response.getCookies());
             }
 
-            return objectMapper.writerWithDefaultPrettyPrinter()
-                    .writeValueAsString(responseInfo);
+            return JsonCodecRegistry.prettyWriter().writeValueAsString(responseInfo);
 
         } catch (Exception e) {
             return "Error parsing response: " + e.getMessage();
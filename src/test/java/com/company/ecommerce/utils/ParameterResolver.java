@@ -1,23 +1,17 @@
 package com.company.ecommerce.utils;
 
-import com.company.ecommerce.utils.testdata.TestDataUtils;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.company.ecommerce.utils.template.TemplateCache;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.restassured.response.Response;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/**
+ * 参数解析器
+ * 模板按单元格原文编译一次并缓存（见 {@link TemplateCache}），每次解析只做取值和写入
+ */
 public class ParameterResolver {
-    // 占位符模式：${变量名}
-    private static final Pattern CONTEXT_PLACEHOLDER_PATTERN =
-            Pattern.compile("\\$\\{([^}]+)\\}");
-    // 占位符模式：#{方法名}
-    private static final Pattern METHOD_PLACEHOLDER_PATTERN =
-            Pattern.compile("\\#\\{([^}]+)\\}");
     private Map<String, Object> context;
 
     // 构造器注入
@@ -37,19 +31,8 @@ public class ParameterResolver {
             return null;
         }
 
-        String result = parameter;
-
-        // 1. 先处理方法调用 #{methodName}
-        result = resolveMethodCalls(result);
-
-        // 2. 再处理上下文变量 ${variableName}
-        result = resolveContextVariables(result);
-
-        try {
-            return  new ObjectMapper().readTree(result);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
+        // 直接解析为 JSON 树：#{methodName} 调用生成器，${variableName} 从上下文取值
+        return TemplateCache.json(parameter).resolve(context);
     }
 
 
@@ -63,7 +46,7 @@ public class ParameterResolver {
 //            return parameter;
             return null;
         }
-        return  resolveContextVariables(parameter);
+        return TemplateCache.sql(parameter).render(context);
     }
 
 
@@ -104,43 +87,4 @@ public class ParameterResolver {
         }
         return extractMap;
     }
-
-    /**
-     * 处理方法调用 #{methodName}
-     */
-    private String resolveMethodCalls(String input) {
-        Matcher matcher = METHOD_PLACEHOLDER_PATTERN.matcher(input);
-        StringBuffer sb = new StringBuffer();
-
-        while (matcher.find()) {
-            String methodName = matcher.group(1);
-            String generatedValue = TestDataUtils.generateValue(methodName);
-            matcher.appendReplacement(sb,
-                    Matcher.quoteReplacement(generatedValue));
-        }
-        matcher.appendTail(sb);
-
-        return sb.toString();
-    }
-
-    /**
-     * 处理上下文变量 ${variableName}
-     */
-    private String resolveContextVariables(String input) {
-        Matcher matcher = CONTEXT_PLACEHOLDER_PATTERN.matcher(input);
-        StringBuffer sb = new StringBuffer();
-
-        while (matcher.find()) {
-            String varName = matcher.group(1);
-            Object value = context.get(varName);
-            if (value == null) {
-                throw new RuntimeException("上下文不存在变量: " + varName);
-            }
-            matcher.appendReplacement(sb,
-                    Matcher.quoteReplacement(String.valueOf(value)));
-        }
-        matcher.appendTail(sb);
-
-        return sb.toString();
-    }
 }
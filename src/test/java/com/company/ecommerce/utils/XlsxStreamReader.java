@@ -0,0 +1,454 @@
+package com.company.ecommerce.utils;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 流式 XLSX 读取器
+ * 不构建工作簿 DOM：共享字符串表只读加载，目标 sheet 的 XML 按需拉取解析，每次只持有当前一行，
+ * 内存占用与行数无关，适合几万行以上的数据表
+ */
+public final class XlsxStreamReader {
+
+    private XlsxStreamReader() {
+        // 工具类，私有构造器
+    }
+
+    /**
+     * 按工作簿顺序返回 sheet 名称
+     */
+    public static List<String> sheetNames(File file) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream ignored = sheets.next()) {
+                    names.add(sheets.getSheetName());
+                }
+            }
+        } catch (OpenXML4JException e) {
+            throw new IOException("无法读取 Excel 文件: " + file, e);
+        }
+        return names;
+    }
+
+    /**
+     * 打开指定 sheet 的行游标，读完最后一行或出错时自动关闭文件
+     * @throws IllegalArgumentException sheet 不存在
+     */
+    public static SheetCursor open(File file, String sheetName) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (OpenXML4JException e) {
+            throw new IOException("无法读取 Excel 文件: " + file, e);
+        }
+
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream sheet = sheets.next();
+                if (!sheets.getSheetName().equals(sheetName)) {
+                    sheet.close();
+                    continue;
+                }
+                XMLStreamReader xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheet);
+                return new SheetCursor(pkg, sheet, xml,
+                        new ReadOnlySharedStringsTable(pkg), reader.getStylesTable());
+            }
+        } catch (OpenXML4JException | SAXException | XMLStreamException | IOException e) {
+            pkg.revert();
+            throw new IOException("无法读取 Excel 文件: " + file, e);
+        }
+
+        pkg.revert();
+        throw new IllegalArgumentException("Sheet '" + sheetName + "' not found in file " + file.getName());
+    }
+
+    /**
+     * 单元格类型
+     */
+    public enum CellType {
+        STRING, NUMBER, DATE, BOOLEAN, ERROR, BLANK
+    }
+
+    /**
+     * 一行数据
+     */
+    public static final class Row {
+
+        private final int index;
+        private final List<Cell> cells;
+
+        Row(int index, List<Cell> cells) {
+            this.index = index;
+            this.cells = cells;
+        }
+
+        /**
+         * 行号（从 0 开始，与 POI Row.getRowNum 一致）
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * 行内存在的单元格，按列顺序；空白列不占位
+         */
+        public List<Cell> getCells() {
+            return cells;
+        }
+
+        /**
+         * 按列号取单元格（二分查找），不存在时返回 null
+         */
+        public Cell getCell(int column) {
+            int low = 0;
+            int high = cells.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midColumn = cells.get(mid).column;
+                if (midColumn < column) {
+                    low = mid + 1;
+                } else if (midColumn > column) {
+                    high = mid - 1;
+                } else {
+                    return cells.get(mid);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 单元格值
+     * 数字、日期、布尔以基本类型保存（日期为 epoch 毫秒，布尔为 1/0），按需装箱；
+     * text 为字符串形式（数字、日期按单元格格式格式化）；formula 为公式原文（无公式时为 null）
+     */
+    public static final class Cell {
+
+        private final int column;
+        private final CellType type;
+        private final double number;
+        private final String text;
+        private final String formula;
+
+        private Cell(int column, CellType type, double number, String text, String formula) {
+            this.column = column;
+            this.type = type;
+            this.number = number;
+            this.text = text;
+            this.formula = formula;
+        }
+
+        static Cell string(int column, String text, String formula) {
+            return new Cell(column, CellType.STRING, 0, text, formula);
+        }
+
+        static Cell number(int column, double number, String text, String formula) {
+            return new Cell(column, CellType.NUMBER, number, text, formula);
+        }
+
+        static Cell date(int column, long epochMillis, String text, String formula) {
+            return new Cell(column, CellType.DATE, epochMillis, text, formula);
+        }
+
+        static Cell bool(int column, boolean value, String formula) {
+            return new Cell(column, CellType.BOOLEAN, value ? 1 : 0, value ? "TRUE" : "FALSE", formula);
+        }
+
+        static Cell error(int column, String text, String formula) {
+            return new Cell(column, CellType.ERROR, 0, text, formula);
+        }
+
+        static Cell blank(int column, String formula) {
+            return new Cell(column, CellType.BLANK, 0, "", formula);
+        }
+
+        public int getColumn() {
+            return column;
+        }
+
+        public CellType getType() {
+            return type;
+        }
+
+        /**
+         * 类型化的值：String / Double / Date / Boolean，空单元格和错误单元格为 ""
+         */
+        public Object getValue() {
+            switch (type) {
+                case NUMBER:
+                    return number;
+                case DATE:
+                    return new Date((long) number);
+                case BOOLEAN:
+                    return number != 0;
+                case STRING:
+                    return text;
+                default:
+                    return "";
+            }
+        }
+
+        /**
+         * 数字值；日期为 epoch 毫秒，布尔为 1/0，其余类型为 0
+         */
+        public double getNumber() {
+            return number;
+        }
+
+        public long getEpochMillis() {
+            return (long) number;
+        }
+
+        public boolean getBoolean() {
+            return number != 0;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getFormula() {
+            return formula;
+        }
+    }
+
+    /**
+     * sheet 行游标：hasNext 时才从 XML 中拉取下一行
+     * 非线程安全，一个游标只应被一个消费者使用
+     */
+    public static final class SheetCursor implements Iterator<Row>, Closeable {
+
+        private final OPCPackage pkg;
+        private final InputStream sheet;
+        private final XMLStreamReader xml;
+        private final ReadOnlySharedStringsTable strings;
+        private final StylesTable styles;
+        // DataFormatter 非线程安全，每个游标单独创建
+        private final DataFormatter formatter = new DataFormatter();
+
+        private final StringBuilder value = new StringBuilder();
+        private final StringBuilder formula = new StringBuilder();
+        private List<Cell> cells;
+        private int rowIndex = -1;
+        private int column = -1;
+        private String cellType;
+        private String cellStyle;
+        private boolean hasValue;
+        private boolean inInlineString;
+        private boolean inPhonetic;
+
+        private Row next;
+        private boolean closed;
+
+        private SheetCursor(OPCPackage pkg, InputStream sheet, XMLStreamReader xml,
+                            ReadOnlySharedStringsTable strings, StylesTable styles) {
+            this.pkg = pkg;
+            this.sheet = sheet;
+            this.xml = xml;
+            this.strings = strings;
+            this.styles = styles;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !closed) {
+                try {
+                    next = readRow();
+                } catch (XMLStreamException | RuntimeException e) {
+                    close();
+                    throw new RuntimeException("解析 Excel 行失败", e);
+                }
+                if (next == null) {
+                    close();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Row row = next;
+            next = null;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                xml.close();
+                sheet.close();
+            } catch (XMLStreamException | IOException e) {
+                // 只读关闭，忽略
+            } finally {
+                pkg.revert();
+            }
+        }
+
+        /**
+         * 拉取到下一个 &lt;/row&gt;，sheetData 结束时返回 null
+         */
+        private Row readRow() throws XMLStreamException {
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "row":
+                            String r = xml.getAttributeValue(null, "r");
+                            rowIndex = r != null ? Integer.parseInt(r) - 1 : rowIndex + 1;
+                            column = -1;
+                            cells = new ArrayList<>();
+                            break;
+                        case "c":
+                            String ref = xml.getAttributeValue(null, "r");
+                            column = ref != null ? columnIndex(ref) : column + 1;
+                            cellType = xml.getAttributeValue(null, "t");
+                            cellStyle = xml.getAttributeValue(null, "s");
+                            value.setLength(0);
+                            formula.setLength(0);
+                            hasValue = false;
+                            break;
+                        case "v":
+                            hasValue = true;
+                            value.append(xml.getElementText());
+                            break;
+                        case "f":
+                            formula.append(xml.getElementText());
+                            break;
+                        case "is":
+                            inInlineString = true;
+                            hasValue = true;
+                            break;
+                        case "rPh":
+                            inPhonetic = true;
+                            break;
+                        case "t":
+                            if (inInlineString && !inPhonetic) {
+                                value.append(xml.getElementText());
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "is":
+                            inInlineString = false;
+                            break;
+                        case "rPh":
+                            inPhonetic = false;
+                            break;
+                        case "c":
+                            cells.add(buildCell());
+                            break;
+                        case "row":
+                            Row row = new Row(rowIndex, Collections.unmodifiableList(cells));
+                            cells = null;
+                            return row;
+                        case "sheetData":
+                            return null;
+                        default:
+                            break;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private Cell buildCell() {
+            String formulaText = formula.length() > 0 ? formula.toString() : null;
+            if (!hasValue) {
+                return Cell.blank(column, formulaText);
+            }
+
+            String raw = value.toString();
+            String type = cellType != null ? cellType : "n";
+            switch (type) {
+                case "s":
+                    String shared = strings.getItemAt(Integer.parseInt(raw.trim())).getString();
+                    return Cell.string(column, shared, formulaText);
+                case "inlineStr":
+                case "str":
+                    return Cell.string(column, raw, formulaText);
+                case "b":
+                    return Cell.bool(column, "1".equals(raw.trim()), formulaText);
+                case "e":
+                    return Cell.error(column, raw, formulaText);
+                case "n":
+                    return numericCell(raw.trim(), formulaText);
+                default:
+                    return Cell.string(column, raw, formulaText);
+            }
+        }
+
+        private Cell numericCell(String raw, String formulaText) {
+            if (raw.isEmpty()) {
+                return Cell.blank(column, formulaText);
+            }
+            double number = Double.parseDouble(raw);
+            int formatIndex = 0;
+            String formatString = "General";
+            if (cellStyle != null && styles != null) {
+                XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(cellStyle));
+                if (style != null) {
+                    formatIndex = style.getDataFormat();
+                    formatString = style.getDataFormatString();
+                }
+            }
+            String text = formatter.formatRawCellContents(number, formatIndex, formatString);
+            if (formatString != null && DateUtil.isADateFormat(formatIndex, formatString)
+                    && DateUtil.isValidExcelDate(number)) {
+                return Cell.date(column, DateUtil.getJavaDate(number).getTime(), text, formulaText);
+            }
+            return Cell.number(column, number, text, formulaText);
+        }
+
+        /**
+         * "AB12" -> 27
+         */
+        private static int columnIndex(String ref) {
+            int column = 0;
+            for (int i = 0; i < ref.length(); i++) {
+                char c = ref.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.company.ecommerce.utils.flow;
+
+import com.company.ecommerce.config.ConfigManager;
+import com.company.ecommerce.reporters.AllureManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 流程执行器
+ * 按 {@link FlowPlan} 的依赖关系执行步骤：依赖完成后立即启动，互不依赖的步骤并发执行。
+ * 任一步骤失败后不再启动新的步骤，已在执行的步骤会等待其结束，最终抛出第一个失败
+ *
+ * 步骤动作必须是线程安全的（上下文使用并发 Map）
+ */
+public class FlowExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlowExecutor.class);
+
+    private final int maxConcurrency;
+
+    public FlowExecutor(int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /**
+     * flow.parallel.enabled 未开启（默认）时退化为顺序执行
+     */
+    public static FlowExecutor fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        if (!config.getBooleanProperty("flow.parallel.enabled", false)) {
+            return new FlowExecutor(1);
+        }
+        return new FlowExecutor(config.getIntProperty("flow.parallel.max.concurrency", 4));
+    }
+
+    public void execute(FlowPlan plan, Consumer<FlowStep> action) {
+        List<FlowStep> steps = plan.getSteps();
+        if (steps.isEmpty()) {
+            return;
+        }
+        if (maxConcurrency == 1 || plan.getDepth() == steps.size()) {
+            // 无可并发的步骤，直接在当前线程顺序执行
+            steps.forEach(action);
+            return;
+        }
+
+        logger.info("流程并发执行: {} 个步骤, {} 层, 依赖: {}", steps.size(), plan.getDepth(), plan.describe());
+
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        ExecutorService pool = Executors.newFixedThreadPool(maxConcurrency,
+                Thread.ofVirtual().name("flow-step-", 0).factory());
+        try {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[steps.size()];
+            for (int i = 0; i < steps.size(); i++) {
+                FlowStep step = steps.get(i);
+                Runnable task = AllureManager.withCurrentContext("流程步骤: " + step,
+                        () -> runStep(step, action, firstFailure));
+
+                List<Integer> deps = plan.getDependencies(i);
+                CompletableFuture<?>[] upstream = new CompletableFuture<?>[deps.size()];
+                for (int j = 0; j < deps.size(); j++) {
+                    upstream[j] = futures[deps.get(j)];
+                }
+                futures[i] = CompletableFuture.allOf(upstream).thenRunAsync(task, pool);
+            }
+
+            // 等待全部结束（失败的分支在依赖处自动短路）
+            CompletableFuture.allOf(futures).handle((ignored, error) -> null).join();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Throwable failure = firstFailure.get();
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    private static void runStep(FlowStep step, Consumer<FlowStep> action, AtomicReference<Throwable> firstFailure) {
+        if (firstFailure.get() != null) {
+            throw new CancellationException("前置步骤失败，跳过步骤: " + step);
+        }
+        try {
+            action.accept(step);
+        } catch (RuntimeException | Error e) {
+            firstFailure.compareAndSet(null, e);
+            throw e;
+        }
+    }
+}
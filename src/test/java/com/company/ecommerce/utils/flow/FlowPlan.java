@@ -0,0 +1,125 @@
+package com.company.ecommerce.utils.flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 流程依赖图
+ * 根据各步骤引用的 ${var} 与之前步骤 responseExtracts 产出的变量建立依赖：
+ * 1. 读依赖：引用变量的步骤依赖最近一个产出该变量的步骤
+ * 2. 写依赖：再次产出同名变量的步骤，依赖上一个产出者和其间所有读取者，保证读取到的是表格顺序下的值
+ * 3. 显式依赖：dependsOn 列声明的前置步骤（* 为之前的全部步骤），用于只通过服务端副作用关联的步骤
+ * 没有依赖关系的步骤可以并发执行
+ */
+public class FlowPlan {
+
+    private final List<FlowStep> steps;
+    private final List<List<Integer>> dependencies;
+
+    private FlowPlan(List<FlowStep> steps, List<List<Integer>> dependencies) {
+        this.steps = steps;
+        this.dependencies = dependencies;
+    }
+
+    public static FlowPlan of(List<FlowStep> steps) {
+        Map<String, Integer> stepIndex = new HashMap<>();
+        Map<String, Integer> lastWriter = new HashMap<>();
+        Map<String, List<Integer>> readersSinceWrite = new HashMap<>();
+        List<List<Integer>> dependencies = new ArrayList<>(steps.size());
+
+        for (int i = 0; i < steps.size(); i++) {
+            FlowStep step = steps.get(i);
+            TreeSet<Integer> deps = new TreeSet<>();
+
+            for (String name : step.getDependsOn()) {
+                if ("*".equals(name)) {
+                    for (int j = 0; j < i; j++) {
+                        deps.add(j);
+                    }
+                    continue;
+                }
+                Integer dep = stepIndex.get(name);
+                if (dep == null) {
+                    throw new IllegalArgumentException(String.format(
+                            "步骤 %s 的 dependsOn 引用了不存在或不在其之前的步骤: %s", step.getName(), name));
+                }
+                deps.add(dep);
+            }
+
+            for (String var : step.getRequires()) {
+                Integer writer = lastWriter.get(var);
+                if (writer != null) {
+                    deps.add(writer);
+                }
+                readersSinceWrite.computeIfAbsent(var, k -> new ArrayList<>()).add(i);
+            }
+            for (String var : step.getProvides()) {
+                Integer writer = lastWriter.get(var);
+                if (writer != null) {
+                    deps.add(writer);
+                }
+                for (Integer reader : readersSinceWrite.getOrDefault(var, Collections.emptyList())) {
+                    if (reader != i) {
+                        deps.add(reader);
+                    }
+                }
+                lastWriter.put(var, i);
+                readersSinceWrite.put(var, new ArrayList<>());
+            }
+            dependencies.add(Collections.unmodifiableList(new ArrayList<>(deps)));
+            stepIndex.put(step.getName(), i);
+        }
+        return new FlowPlan(Collections.unmodifiableList(steps), Collections.unmodifiableList(dependencies));
+    }
+
+    public List<FlowStep> getSteps() {
+        return steps;
+    }
+
+    /**
+     * 第 index 个步骤依赖的步骤下标（均小于 index）
+     */
+    public List<Integer> getDependencies(int index) {
+        return dependencies.get(index);
+    }
+
+    /**
+     * 按依赖分层后的层数（即关键路径长度），等于步骤数时说明流程只能顺序执行
+     */
+    public int getDepth() {
+        int[] level = new int[steps.size()];
+        int depth = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            for (int dep : dependencies.get(i)) {
+                level[i] = Math.max(level[i], level[dep] + 1);
+            }
+            depth = Math.max(depth, level[i] + 1);
+        }
+        return depth;
+    }
+
+    /**
+     * 依赖关系描述，用于日志
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < steps.size(); i++) {
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append(steps.get(i).getName());
+            List<Integer> deps = dependencies.get(i);
+            if (!deps.isEmpty()) {
+                sb.append(" <- ");
+                for (int j = 0; j < deps.size(); j++) {
+                    sb.append(j > 0 ? "," : "").append(steps.get(deps.get(j)).getName());
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
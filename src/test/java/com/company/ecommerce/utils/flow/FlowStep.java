@@ -0,0 +1,134 @@
+package com.company.ecommerce.utils.flow;
+
+import com.company.ecommerce.utils.ExcelReader;
+import com.company.ecommerce.utils.template.TextTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 流程中的一个步骤（flow.xlsx 的一行）
+ * 编译时提取 requestBody 引用的 ${var}（requires）和 responseExtracts 产出的变量（provides），
+ * 以及 dependsOn 列显式声明的前置步骤，供 {@link FlowPlan} 分析步骤间依赖。
+ * dependsOn 填写前面步骤的序号，多个用逗号分隔，* 表示依赖之前的全部步骤；
+ * 只通过服务端副作用（而非变量）依赖前面步骤的行需要填写
+ */
+public class FlowStep {
+
+    private final int index;
+    private final String name;
+    private final String url;
+    private final String requestBody;
+    private final String responseExtracts;
+    private final Set<String> requires;
+    private final Set<String> provides;
+    private final Set<String> dependsOn;
+
+    public FlowStep(int index, String name, String url, String requestBody, String responseExtracts) {
+        this(index, name, url, requestBody, responseExtracts, null);
+    }
+
+    public FlowStep(int index, String name, String url, String requestBody, String responseExtracts,
+                    String dependsOn) {
+        this.index = index;
+        this.name = name != null && !name.isEmpty() ? name : String.valueOf(index + 1);
+        this.url = url;
+        this.requestBody = requestBody;
+        this.responseExtracts = responseExtracts;
+        this.requires = requestBody == null || requestBody.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(TextTemplate.compile(requestBody, false).contextVariables());
+        this.provides = Collections.unmodifiableSet(parseProvides(responseExtracts));
+        this.dependsOn = Collections.unmodifiableSet(parseDependsOn(dependsOn));
+    }
+
+    /**
+     * 读取 flow.xlsx 中一个 sheet 的全部步骤
+     */
+    public static List<FlowStep> fromSheet(String sheetName) {
+        List<FlowStep> steps = new ArrayList<>();
+        Iterator<Map<String, String>> rows = ExcelReader.getUserDataAsMap("flow.xlsx", sheetName);
+        while (rows.hasNext()) {
+            Map<String, String> row = rows.next();
+            steps.add(new FlowStep(steps.size(), row.get("序号"), row.get("url"),
+                    row.get("requestBody"), row.get("responseExtracts"), row.get("dependsOn")));
+        }
+        return steps;
+    }
+
+    /**
+     * responseExtracts 格式：var1:jsonPath1,var2:jsonPath2
+     */
+    private static Set<String> parseProvides(String responseExtracts) {
+        Set<String> names = new LinkedHashSet<>();
+        if (responseExtracts != null && !responseExtracts.isEmpty()) {
+            for (String extract : responseExtracts.split(",")) {
+                String[] parts = extract.trim().split(":");
+                if (parts.length == 2) {
+                    names.add(parts[0].trim());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * dependsOn 格式：序号1,序号2 或 *
+     */
+    private static Set<String> parseDependsOn(String dependsOn) {
+        Set<String> names = new LinkedHashSet<>();
+        if (dependsOn != null && !dependsOn.isEmpty()) {
+            for (String name : dependsOn.split(",")) {
+                if (!name.trim().isEmpty()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return names;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getRequestBody() {
+        return requestBody;
+    }
+
+    public String getResponseExtracts() {
+        return responseExtracts;
+    }
+
+    public Set<String> getRequires() {
+        return requires;
+    }
+
+    public Set<String> getProvides() {
+        return provides;
+    }
+
+    /**
+     * 显式声明的前置步骤序号（* 表示之前的全部步骤）
+     */
+    public Set<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + url;
+    }
+}
@@ -0,0 +1,131 @@
+package com.company.ecommerce.utils.load;
+
+import com.company.ecommerce.utils.ApiExchange;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * 压测执行器
+ * 每次迭代运行在独立的虚拟线程上，请求经由调用方提供的 transport 发出（签名、连接池与功能用例一致）
+ *
+ * OPEN 模式按计划时间点产生到达，耗时从计划时间算起：被压端变慢时排队时间也计入延迟，
+ * 避免封闭模型"请求越慢、发得越少"导致的延迟低估
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 120;
+
+    private final LoadProfile profile;
+    private final Function<ApiExchange, Response> transport;
+
+    public LoadGenerator(LoadProfile profile, Function<ApiExchange, Response> transport) {
+        this.profile = profile;
+        this.transport = transport;
+    }
+
+    public LoadReport run(LoadScenario scenario) {
+        LoadReport report = new LoadReport(scenario.getName(), profile);
+        logger.info("🚀 开始压测: {} {}", scenario.getName(), profile);
+
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("load-", 0).factory());
+        long start = System.nanoTime();
+        try {
+            if (profile.getMode() == LoadProfile.Mode.OPEN) {
+                runOpen(scenario, report, executor, start);
+            } else {
+                runClosed(scenario, report, executor, start);
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("压测结束后仍有请求未完成，强制中断");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("压测被中断");
+        } finally {
+            executor.shutdownNow();
+        }
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    /**
+     * 开放模型：固定间隔调度到达，不等待前一次迭代完成
+     */
+    private void runOpen(LoadScenario scenario, LoadReport report, ExecutorService executor, long start) {
+        if (profile.getRps() <= 0) {
+            throw new IllegalArgumentException("OPEN 模式 rps 必须大于 0");
+        }
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / profile.getRps());
+        long end = start + profile.getDuration().toNanos();
+        Semaphore inFlight = new Semaphore(profile.getMaxInFlight());
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended - end >= 0) {
+                break;
+            }
+            waitUntil(intended);
+
+            if (!inFlight.tryAcquire()) {
+                report.recordDropped();
+                continue;
+            }
+            long iteration = i;
+            executor.execute(() -> {
+                try {
+                    report.recordIteration(scenario.execute(iteration, intended, transport, report));
+                } catch (RuntimeException e) {
+                    logger.debug("压测迭代异常: {}", e.getMessage());
+                    report.recordIteration(false);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * 封闭模型：concurrency 个虚拟用户循环执行直到时间结束
+     */
+    private void runClosed(LoadScenario scenario, LoadReport report, ExecutorService executor, long start) {
+        if (profile.getConcurrency() <= 0) {
+            throw new IllegalArgumentException("CLOSED 模式 concurrency 必须大于 0");
+        }
+        long end = start + profile.getDuration().toNanos();
+        AtomicLong counter = new AtomicLong();
+
+        for (int user = 0; user < profile.getConcurrency(); user++) {
+            executor.execute(() -> {
+                while (System.nanoTime() - end < 0 && !Thread.currentThread().isInterrupted()) {
+                    try {
+                        report.recordIteration(scenario.execute(
+                                counter.getAndIncrement(), System.nanoTime(), transport, report));
+                    } catch (RuntimeException e) {
+                        logger.debug("压测迭代异常: {}", e.getMessage());
+                        report.recordIteration(false);
+                    }
+                }
+            });
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
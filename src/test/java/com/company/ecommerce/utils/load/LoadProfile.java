@@ -0,0 +1,59 @@
+package com.company.ecommerce.utils.load;
+
+import com.company.ecommerce.config.ConfigManager;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * 压测参数
+ * OPEN：开放模型，按 rps 固定间隔产生请求，不等待前一个请求完成（到达率不受响应变慢影响）
+ * CLOSED：封闭模型，concurrency 个虚拟用户循环执行
+ */
+@Getter
+@Builder
+@ToString
+public class LoadProfile {
+
+    public enum Mode {
+        OPEN, CLOSED
+    }
+
+    private final Mode mode;
+
+    /**
+     * 目标到达率（OPEN 模式），每秒迭代数
+     */
+    private final double rps;
+
+    /**
+     * 虚拟用户数（CLOSED 模式）
+     */
+    private final int concurrency;
+
+    /**
+     * 持续时间
+     */
+    private final Duration duration;
+
+    /**
+     * 同时在途的最大迭代数（OPEN 模式），超出的到达直接记为丢弃，防止被压端卡死时无限堆积
+     */
+    private final int maxInFlight;
+
+    /**
+     * 从配置 / 系统属性读取压测参数
+     */
+    public static LoadProfile fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        return LoadProfile.builder()
+                .mode(Mode.valueOf(config.getProperty("load.mode", "OPEN").trim().toUpperCase()))
+                .rps(Double.parseDouble(config.getProperty("load.rps", "10")))
+                .concurrency(config.getIntProperty("load.concurrency", 10))
+                .duration(Duration.ofSeconds(config.getIntProperty("load.duration", 60)))
+                .maxInFlight(config.getIntProperty("load.max.in.flight", 1000))
+                .build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.company.ecommerce.utils.load;
+
+import com.company.ecommerce.utils.JsonCodecRegistry;
+import com.company.ecommerce.utils.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测结果统计
+ * 按接口汇总请求数、失败数、吞吐量和延迟百分位，写入各线程无锁
+ */
+public class LoadReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadReport.class);
+
+    private static final String REPORT_DIR = "test-results/load";
+
+    private final String scenario;
+    private final LoadProfile profile;
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder failedIterations = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long elapsedNanos;
+
+    public LoadReport(String scenario, LoadProfile profile) {
+        this.scenario = scenario;
+        this.profile = profile;
+    }
+
+    void recordSuccess(String endpoint, long elapsedNanos) {
+        EndpointStats stats = stats(endpoint);
+        stats.latency.recordNanos(elapsedNanos);
+        stats.success.increment();
+    }
+
+    void recordFailure(String endpoint, long elapsedNanos, String reason) {
+        EndpointStats stats = stats(endpoint);
+        stats.latency.recordNanos(elapsedNanos);
+        stats.failures.increment();
+        stats.failureReasons.computeIfAbsent(reason, k -> new LongAdder()).increment();
+    }
+
+    void recordIteration(boolean success) {
+        iterations.increment();
+        if (!success) {
+            failedIterations.increment();
+        }
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getIterations() {
+        return iterations.sum();
+    }
+
+    public long getFailedIterations() {
+        return failedIterations.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, k -> new EndpointStats());
+    }
+
+    /**
+     * 汇总为可序列化的结构（延迟单位：毫秒）
+     */
+    public Map<String, Object> toMap() {
+        double seconds = Math.max(elapsedNanos / 1_000_000_000.0, 0.001);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("scenario", scenario);
+        summary.put("mode", profile.getMode().name());
+        if (profile.getMode() == LoadProfile.Mode.OPEN) {
+            summary.put("targetRps", profile.getRps());
+        } else {
+            summary.put("concurrency", profile.getConcurrency());
+        }
+        summary.put("durationSeconds", round(seconds));
+        summary.put("iterations", iterations.sum());
+        summary.put("failedIterations", failedIterations.sum());
+        summary.put("dropped", dropped.sum());
+        summary.put("iterationsPerSecond", round(iterations.sum() / seconds));
+
+        Map<String, Object> perEndpoint = new TreeMap<>();
+        endpoints.forEach((endpoint, stats) -> perEndpoint.put(endpoint, stats.toMap(seconds)));
+        summary.put("endpoints", perEndpoint);
+        return summary;
+    }
+
+    /**
+     * 写入 test-results/load/ 下的 JSON 文件并返回内容
+     */
+    public String writeJson() {
+        String json;
+        try {
+            json = JsonCodecRegistry.prettyWriter().writeValueAsString(toMap());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize load report", e);
+        }
+
+        File dir = new File(REPORT_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            logger.warn("无法创建压测报告目录: {}", dir.getAbsolutePath());
+            return json;
+        }
+        String fileName = String.format("load-%s-%s.json",
+                scenario.replaceAll("[^\\w\\-]", "_"),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")));
+        File file = new File(dir, fileName);
+        try {
+            Files.writeString(file.toPath(), json);
+            logger.info("📄 压测报告已写入: {}", file.getAbsolutePath());
+        } catch (IOException e) {
+            logger.warn("写入压测报告失败: {}", e.getMessage());
+        }
+        return json;
+    }
+
+    /**
+     * 以表格形式输出到日志
+     */
+    public void logSummary() {
+        double seconds = Math.max(elapsedNanos / 1_000_000_000.0, 0.001);
+        logger.info("=========================================");
+        logger.info("压测结果: {} ({}), 耗时 {}s, 迭代 {} (失败 {}, 丢弃 {})",
+                scenario, profile.getMode(), round(seconds), iterations.sum(), failedIterations.sum(), dropped.sum());
+        logger.info(String.format("%-40s %8s %8s %10s %9s %9s %9s %9s",
+                "endpoint", "count", "errors", "rps", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)"));
+        new TreeMap<>(endpoints).forEach((endpoint, stats) -> {
+            LatencyHistogram latency = stats.latency;
+            logger.info(String.format("%-40s %8d %8d %10.2f %9.2f %9.2f %9.2f %9.2f",
+                    endpoint, latency.getCount(), stats.failures.sum(), latency.getCount() / seconds,
+                    millis(latency.getPercentile(50)), millis(latency.getPercentile(90)),
+                    millis(latency.getPercentile(99)), millis(latency.getMax())));
+        });
+        logger.info("=========================================");
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static class EndpointStats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder success = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> failureReasons = new ConcurrentHashMap<>();
+
+        private Map<String, Object> toMap(double seconds) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", latency.getCount());
+            map.put("success", success.sum());
+            map.put("failures", failures.sum());
+            map.put("throughput", round(latency.getCount() / seconds));
+            map.put("meanMs", round(millis((long) latency.getMean())));
+            map.put("p50Ms", millis(latency.getPercentile(50)));
+            map.put("p90Ms", millis(latency.getPercentile(90)));
+            map.put("p95Ms", millis(latency.getPercentile(95)));
+            map.put("p99Ms", millis(latency.getPercentile(99)));
+            map.put("maxMs", millis(latency.getMax()));
+            if (!failureReasons.isEmpty()) {
+                Map<String, Long> reasons = new TreeMap<>();
+                failureReasons.forEach((reason, counter) -> reasons.put(reason, counter.sum()));
+                map.put("failureReasons", reasons);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.company.ecommerce.utils.load;
+
+import com.company.ecommerce.config.ConfigManager;
+import com.company.ecommerce.utils.ApiExchange;
+import com.company.ecommerce.utils.ExcelReader;
+import com.company.ecommerce.utils.ParameterResolver;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.restassured.response.Response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 压测场景 - 直接复用功能用例的 Excel 数据
+ * single.xlsx：每次迭代轮流取一行单独发送（行之间互不依赖）
+ * flow.xlsx：每次迭代按顺序执行整个流程，使用独立上下文传递 responseExtracts 提取的变量
+ */
+public class LoadScenario {
+
+    private final String name;
+    private final List<Step> steps;
+    private final boolean chained;
+
+    private LoadScenario(String name, List<Step> steps, boolean chained) {
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("压测场景没有可执行的数据行: " + name);
+        }
+        this.name = name;
+        this.steps = Collections.unmodifiableList(steps);
+        this.chained = chained;
+    }
+
+    /**
+     * 单接口场景：single.xlsx 的 sheet 名为测试方法名，行内有 url 列时优先使用，否则使用 endpoint
+     */
+    public static LoadScenario fromSingleSheet(String sheetName, String endpoint) {
+        List<Step> steps = new ArrayList<>();
+        Iterator<Map<String, String>> rows = ExcelReader.getUserDataAsMap("single.xlsx", sheetName);
+        while (rows.hasNext()) {
+            Map<String, String> row = rows.next();
+            String url = row.get("url") != null && !row.get("url").isEmpty() ? row.get("url") : endpoint;
+            if (url == null || url.isEmpty()) {
+                throw new IllegalArgumentException("sheet " + sheetName + " 未配置接口地址");
+            }
+            // 行之间互不依赖，无需提取响应变量
+            steps.add(new Step(url, row.get("requestBody"), null));
+        }
+        return new LoadScenario("single:" + sheetName, steps, false);
+    }
+
+    /**
+     * 流程场景：flow.xlsx 中一个 sheet 即一个完整流程
+     */
+    public static LoadScenario fromFlowSheet(String sheetName) {
+        List<Step> steps = new ArrayList<>();
+        Iterator<Map<String, String>> rows = ExcelReader.getUserDataAsMap("flow.xlsx", sheetName);
+        while (rows.hasNext()) {
+            Map<String, String> row = rows.next();
+            steps.add(new Step(row.get("url"), row.get("requestBody"), row.get("responseExtracts")));
+        }
+        return new LoadScenario("flow:" + sheetName, steps, true);
+    }
+
+    /**
+     * 按配置构建压测场景
+     * load.single.sheets=testCreateUser:/user/create,...（sheet:接口地址）
+     * load.flow.sheets=用户,...（为 * 时取 flow.xlsx 全部 sheet）
+     */
+    public static List<LoadScenario> fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        List<LoadScenario> scenarios = new ArrayList<>();
+
+        for (String entry : splitList(config.getProperty("load.single.sheets", ""))) {
+            String[] parts = entry.split(":", 2);
+            scenarios.add(fromSingleSheet(parts[0].trim(), parts.length > 1 ? parts[1].trim() : null));
+        }
+
+        List<String> flowSheets = splitList(config.getProperty("load.flow.sheets", ""));
+        if (flowSheets.size() == 1 && "*".equals(flowSheets.get(0))) {
+            flowSheets = new ArrayList<>();
+            ExcelReader.getSheetNames("flow.xlsx").forEachRemaining(flowSheets::add);
+        }
+        for (String sheet : flowSheets) {
+            scenarios.add(fromFlowSheet(sheet));
+        }
+        return scenarios;
+    }
+
+    private static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * 执行一次迭代
+     * @param iteration 迭代序号（单接口场景据此轮询数据行）
+     * @param startNanos 本次迭代的计划开始时间，首个请求的耗时从该时间算起，包含排队等待
+     * @return 迭代是否全部成功
+     */
+    boolean execute(long iteration, long startNanos, Function<ApiExchange, Response> transport, LoadReport report) {
+        if (!chained) {
+            Step step = steps.get((int) (iteration % steps.size()));
+            return step.execute(new ParameterResolver(new HashMap<>()), startNanos, transport, report);
+        }
+
+        ParameterResolver resolver = new ParameterResolver(new HashMap<>());
+        long stepStart = startNanos;
+        for (Step step : steps) {
+            if (!step.execute(resolver, stepStart, transport, report)) {
+                // 后续步骤依赖前面提取的变量，失败即终止本次迭代
+                return false;
+            }
+            stepStart = System.nanoTime();
+        }
+        return true;
+    }
+
+    private static class Step {
+
+        private final String url;
+        private final String requestBody;
+        private final String responseExtracts;
+
+        private Step(String url, String requestBody, String responseExtracts) {
+            this.url = url;
+            this.requestBody = requestBody;
+            this.responseExtracts = responseExtracts;
+        }
+
+        private boolean execute(ParameterResolver resolver, long startNanos,
+                                Function<ApiExchange, Response> transport, LoadReport report) {
+            Response response;
+            try {
+                JsonNode body = resolver.requestResolve(requestBody);
+                response = transport.apply(ApiExchange.of("post", url, body));
+            } catch (RuntimeException e) {
+                report.recordFailure(url, System.nanoTime() - startNanos, e.getClass().getSimpleName());
+                return false;
+            }
+
+            long elapsed = System.nanoTime() - startNanos;
+            int statusCode = response.getStatusCode();
+            if (statusCode < 200 || statusCode >= 300) {
+                report.recordFailure(url, elapsed, "HTTP " + statusCode);
+                return false;
+            }
+            report.recordSuccess(url, elapsed);
+
+            if (responseExtracts != null && !responseExtracts.isEmpty()) {
+                resolver.responseSave(responseExtracts, response);
+            }
+            return true;
+        }
+    }
+}
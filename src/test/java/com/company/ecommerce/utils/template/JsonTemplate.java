@@ -0,0 +1,237 @@
+package com.company.ecommerce.utils.template;
+
+import com.company.ecommerce.utils.JsonCodecRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的 JSON 请求模板
+ * 编译时把占位符替换为标记后解析一次得到骨架树，并记录每个占位符所在的位置；
+ * 解析时复制骨架树并按位置写入值，不再做正则替换和整段 JSON 重新解析
+ *
+ * 替换规则：
+ * 1. 引号内的占位符（"${userId}"、"前缀#{phone}"）按字符串拼接，结果始终为字符串
+ * 2. 引号外的占位符（"age": ${age}）按类型写入：数字、布尔、对象、数组保持原类型
+ * 模板不是合法 JSON 骨架时（如占位符出现在字段名中）退回为"文本渲染后再解析"
+ */
+public class JsonTemplate {
+
+    private static final char MARK_OPEN = '\uE000';
+    private static final char TYPED_OPEN = '\uE002';
+    private static final char MARK_CLOSE = '\uE001';
+
+    private final JsonNode skeleton;
+    private final List<Slot> slots;
+    private final Slot rootSlot;
+    private final TextTemplate fallback;
+
+    private JsonTemplate(JsonNode skeleton, List<Slot> slots, Slot rootSlot, TextTemplate fallback) {
+        this.skeleton = skeleton;
+        this.slots = slots;
+        this.rootSlot = rootSlot;
+        this.fallback = fallback;
+    }
+
+    public static JsonTemplate compile(String template) {
+        List<TextTemplate.Segment> segments = TextTemplate.tokenize(template, true);
+
+        JsonNode skeleton;
+        try {
+            skeleton = JsonCodecRegistry.treeReader().readTree(buildSkeleton(segments));
+        } catch (JsonProcessingException e) {
+            return new JsonTemplate(null, null, null, new TextTemplate(segments));
+        }
+
+        List<Slot> slots = new ArrayList<>();
+        Slot root = slotFor(skeleton, segments, new Object[0], null);
+        if (root == null && !collectSlots(skeleton, segments, new ArrayList<>(), slots)) {
+            // 字段名中含占位符，无法按位置替换
+            return new JsonTemplate(null, null, null, new TextTemplate(segments));
+        }
+        return new JsonTemplate(skeleton, slots, root, null);
+    }
+
+    /**
+     * 解析为 JSON 树
+     */
+    public JsonNode resolve(Map<String, Object> context) {
+        if (fallback != null) {
+            try {
+                return JsonCodecRegistry.treeReader().readTree(fallback.render(context));
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        if (rootSlot != null) {
+            return rootSlot.value(context);
+        }
+
+        JsonNode root = skeleton.deepCopy();
+        for (Slot slot : slots) {
+            JsonNode parent = root;
+            for (Object step : slot.path) {
+                parent = step instanceof Integer ? parent.get((Integer) step) : parent.get((String) step);
+            }
+            JsonNode value = slot.value(context);
+            if (slot.key instanceof Integer) {
+                ((ArrayNode) parent).set((Integer) slot.key, value);
+            } else {
+                ((ObjectNode) parent).set((String) slot.key, value);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * 生成骨架文本：引号内占位符替换为字符串标记，引号外占位符替换为带引号的类型标记
+     */
+    private static String buildSkeleton(List<TextTemplate.Segment> segments) {
+        StringBuilder sb = new StringBuilder();
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = 0; i < segments.size(); i++) {
+            TextTemplate.Segment segment = segments.get(i);
+            if (segment.getKind() == TextTemplate.Kind.LITERAL) {
+                String text = segment.getValue();
+                for (int j = 0; j < text.length(); j++) {
+                    char c = text.charAt(j);
+                    if (escaped) {
+                        escaped = false;
+                    } else if (inString && c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = !inString;
+                    }
+                }
+                sb.append(text);
+            } else if (inString) {
+                sb.append(MARK_OPEN).append(i).append(MARK_CLOSE);
+            } else {
+                sb.append('"').append(TYPED_OPEN).append(i).append(MARK_CLOSE).append('"');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 深度优先收集占位符位置；字段名含占位符时返回 false
+     */
+    private static boolean collectSlots(JsonNode node, List<TextTemplate.Segment> segments,
+                                        List<Object> path, List<Slot> slots) {
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (containsMarker(field.getKey())) {
+                    return false;
+                }
+                if (!visitChild(field.getValue(), field.getKey(), segments, path, slots)) {
+                    return false;
+                }
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                if (!visitChild(node.get(i), i, segments, path, slots)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean visitChild(JsonNode child, Object key, List<TextTemplate.Segment> segments,
+                                      List<Object> path, List<Slot> slots) {
+        Slot slot = slotFor(child, segments, path.toArray(), key);
+        if (slot != null) {
+            slots.add(slot);
+            return true;
+        }
+        path.add(key);
+        boolean ok = collectSlots(child, segments, path, slots);
+        path.remove(path.size() - 1);
+        return ok;
+    }
+
+    /**
+     * 文本节点含标记时生成占位符位置，否则返回 null
+     */
+    private static Slot slotFor(JsonNode node, List<TextTemplate.Segment> segments, Object[] path, Object key) {
+        if (!node.isTextual() || !containsMarker(node.textValue())) {
+            return null;
+        }
+        String text = node.textValue();
+        if (text.charAt(0) == TYPED_OPEN) {
+            int index = Integer.parseInt(text.substring(1, text.length() - 1));
+            return new Slot(path, key, segments.get(index), null);
+        }
+
+        // 字符串内插：标记之间的文字作为字面量片段
+        List<TextTemplate.Segment> parts = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = text.indexOf(MARK_OPEN, start)) >= 0) {
+            int close = text.indexOf(MARK_CLOSE, open);
+            if (open > start) {
+                parts.add(new TextTemplate.Segment(TextTemplate.Kind.LITERAL, text.substring(start, open)));
+            }
+            parts.add(segments.get(Integer.parseInt(text.substring(open + 1, close))));
+            start = close + 1;
+        }
+        if (start < text.length()) {
+            parts.add(new TextTemplate.Segment(TextTemplate.Kind.LITERAL, text.substring(start)));
+        }
+        return new Slot(path, key, null, new TextTemplate(parts));
+    }
+
+    private static boolean containsMarker(String text) {
+        return text.indexOf(MARK_OPEN) >= 0 || text.indexOf(TYPED_OPEN) >= 0;
+    }
+
+    /**
+     * 按类型转换占位符的值：字符串按原先"直接拼入 JSON"的语义解析，无法解析时作为字符串
+     */
+    private static JsonNode toTypedNode(Object value) {
+        if (value instanceof String) {
+            try {
+                JsonNode parsed = JsonCodecRegistry.treeReader().readTree((String) value);
+                if (parsed != null && !parsed.isMissingNode()) {
+                    return parsed;
+                }
+            } catch (JsonProcessingException e) {
+                // 不是合法 JSON 值，按字符串处理
+            }
+            return TextNode.valueOf((String) value);
+        }
+        return JsonCodecRegistry.mapper().valueToTree(value);
+    }
+
+    private static class Slot {
+
+        private final Object[] path;
+        private final Object key;
+        private final TextTemplate.Segment typed;
+        private final TextTemplate text;
+
+        private Slot(Object[] path, Object key, TextTemplate.Segment typed, TextTemplate text) {
+            this.path = path;
+            this.key = key;
+            this.typed = typed;
+            this.text = text;
+        }
+
+        private JsonNode value(Map<String, Object> context) {
+            if (typed != null) {
+                return toTypedNode(typed.resolve(context));
+            }
+            return TextNode.valueOf(text.render(context));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.company.ecommerce.utils.template;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 模板编译缓存
+ * 以模板原文为 key，同一单元格内容在整个进程内只编译一次，编译结果不可变、可跨线程共享
+ */
+public final class TemplateCache {
+
+    private static final ConcurrentMap<String, JsonTemplate> JSON_TEMPLATES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, TextTemplate> SQL_TEMPLATES = new ConcurrentHashMap<>();
+
+    private TemplateCache() {
+        // 工具类，私有构造器
+    }
+
+    /**
+     * 请求体模板（识别 ${var} 和 #{generator}）
+     */
+    public static JsonTemplate json(String template) {
+        return JSON_TEMPLATES.computeIfAbsent(template, JsonTemplate::compile);
+    }
+
+    /**
+     * SQL 模板（只识别 ${var}）
+     */
+    public static TextTemplate sql(String template) {
+        return SQL_TEMPLATES.computeIfAbsent(template, t -> TextTemplate.compile(t, false));
+    }
+
+    public static int size() {
+        return JSON_TEMPLATES.size() + SQL_TEMPLATES.size();
+    }
+
+    public static void clear() {
+        JSON_TEMPLATES.clear();
+        SQL_TEMPLATES.clear();
+    }
+}
@@ -0,0 +1,161 @@
+package com.company.ecommerce.utils.template;
+
+import com.company.ecommerce.utils.testdata.TestDataUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 预编译的文本模板
+ * 模板文本只扫描一次，拆分为 字面量 / 上下文变量 ${name} / 生成器 #{name} 三类片段，
+ * 之后每次渲染只需按顺序拼接，不再使用正则
+ */
+public class TextTemplate {
+
+    public enum Kind {
+        LITERAL, CONTEXT, GENERATOR
+    }
+
+    /**
+     * 模板片段：LITERAL 时 value 为原文，其余为变量名/生成器名
+     */
+    public static final class Segment {
+
+        private final Kind kind;
+        private final String value;
+
+        Segment(Kind kind, String value) {
+            this.kind = kind;
+            this.value = value;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * 解析片段的值：上下文变量返回原始对象，生成器返回生成的字符串
+         */
+        Object resolve(Map<String, Object> context) {
+            switch (kind) {
+                case CONTEXT:
+                    Object value = context.get(this.value);
+                    if (value == null) {
+                        throw new RuntimeException("上下文不存在变量: " + this.value);
+                    }
+                    return value;
+                case GENERATOR:
+                    return TestDataUtils.generateValue(this.value);
+                default:
+                    return this.value;
+            }
+        }
+    }
+
+    private final List<Segment> segments;
+    private final int literalLength;
+    private final boolean placeholders;
+
+    TextTemplate(List<Segment> segments) {
+        this.segments = Collections.unmodifiableList(segments);
+        int length = 0;
+        boolean hasPlaceholders = false;
+        for (Segment segment : segments) {
+            if (segment.kind == Kind.LITERAL) {
+                length += segment.value.length();
+            } else {
+                hasPlaceholders = true;
+            }
+        }
+        this.literalLength = length;
+        this.placeholders = hasPlaceholders;
+    }
+
+    /**
+     * 编译模板
+     * @param template 模板文本
+     * @param generators 是否识别 #{name}；为 false 时 #{...} 按原文保留（SQL 模板只替换上下文变量）
+     */
+    public static TextTemplate compile(String template, boolean generators) {
+        return new TextTemplate(tokenize(template, generators));
+    }
+
+    /**
+     * 拆分片段，与原先的 \$\{([^}]+)\} / \#\{([^}]+)\} 匹配规则一致
+     */
+    static List<Segment> tokenize(String template, boolean generators) {
+        List<Segment> segments = new ArrayList<>();
+        int length = template.length();
+        int literalStart = 0;
+        int i = 0;
+        while (i < length - 1) {
+            char c = template.charAt(i);
+            boolean context = c == '$';
+            boolean generator = generators && c == '#';
+            if ((context || generator) && template.charAt(i + 1) == '{') {
+                int close = template.indexOf('}', i + 2);
+                if (close > i + 2) {
+                    if (i > literalStart) {
+                        segments.add(new Segment(Kind.LITERAL, template.substring(literalStart, i)));
+                    }
+                    segments.add(new Segment(context ? Kind.CONTEXT : Kind.GENERATOR,
+                            template.substring(i + 2, close)));
+                    i = close + 1;
+                    literalStart = i;
+                    continue;
+                }
+            }
+            i++;
+        }
+        if (literalStart < length) {
+            segments.add(new Segment(Kind.LITERAL, template.substring(literalStart)));
+        }
+        return segments;
+    }
+
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * 模板引用的上下文变量名（按出现顺序去重）
+     */
+    public Set<String> contextVariables() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Segment segment : segments) {
+            if (segment.kind == Kind.CONTEXT) {
+                names.add(segment.value);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 模板中是否包含占位符
+     */
+    public boolean hasPlaceholders() {
+        return placeholders;
+    }
+
+    /**
+     * 渲染为字符串
+     */
+    public String render(Map<String, Object> context) {
+        if (segments.size() == 1) {
+            return String.valueOf(segments.get(0).resolve(context));
+        }
+        StringBuilder sb = new StringBuilder(literalLength + segments.size() * 16);
+        for (Segment segment : segments) {
+            sb.append(segment.resolve(context));
+        }
+        return sb.toString();
+    }
+}
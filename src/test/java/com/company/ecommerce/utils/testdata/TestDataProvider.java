@@ -5,6 +5,7 @@ import com.company.ecommerce.models.Product;
 import com.company.ecommerce.models.User;
 import com.company.ecommerce.utils.ExcelReader;
 import com.company.ecommerce.utils.JsonReader;
+import com.company.ecommerce.utils.load.LoadScenario;
 import com.company.ecommerce.utils.testdata.datacreate.ChineseName;
 import com.company.ecommerce.utils.testdata.datacreate.IdCardNum;
 import com.company.ecommerce.utils.testdata.datacreate.Mobile;
@@ -27,7 +28,10 @@ public class TestDataProvider {
         };
     }
 
-    @DataProvider(name = "flowName")
+    /**
+     * 各流程使用独立上下文，可并行执行；并发上限见 data.provider.thread.count
+     */
+    @DataProvider(name = "flowName", parallel = true)
     public Iterator<String> getExcelSheetname() {
         return ExcelReader.getSheetNames("flow.xlsx");
     }
@@ -42,16 +46,46 @@ public class TestDataProvider {
         return ExcelReader.getUserDataAsMap("single.xlsx", method.getName());
     }
 
+    /**
+     * caseDataMap 的并行版本：行按需读取，由数据提供者线程池并发分发（线程数见 data.provider.thread.count），
+     * 测试方法必须线程安全
+     */
+    @DataProvider(name = "caseDataMapParallel", parallel = true)
+    public Iterator<Map<String, String>> getCaseDataMapParallel(Method method) {
+        return ExcelReader.getUserDataAsMap("single.xlsx", method.getName());
+    }
+
     @DataProvider(name = "uicaseData")
     public  Iterator<Object[]> getUICaseDataMap(Method method) throws IOException {
         return ExcelReader.readTestData("ui/pagecases.xlsx", method.getName());
     }
 
+    /**
+     * uicaseData 的并行版本，每个线程使用各自的浏览器实例
+     */
+    @DataProvider(name = "uicaseDataParallel", parallel = true)
+    public Iterator<Object[]> getUICaseDataParallel(Method method) throws IOException {
+        return ExcelReader.readTestData("ui/pagecases.xlsx", method.getName());
+    }
+
+    @DataProvider(name = "loadScenarios")
+    public Iterator<LoadScenario> getLoadScenarios() {
+        return LoadScenario.fromConfig().iterator();
+    }
+
     @DataProvider(name = "productData")
     public Object[][] getProductData() {
         return JsonReader.readTestData("products.json", Product[].class);
     }
 
+    /**
+     * productData 的流式并行版本：逐个元素反序列化，不先构建整个数组
+     */
+    @DataProvider(name = "productDataParallel", parallel = true)
+    public Iterator<Object[]> getProductDataParallel() {
+        return JsonReader.iterateTestData("products.json", Product.class);
+    }
+
     public static User createTestUser() {
         return User.builder()
                 .authentication(true)
@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 测试数据生成工具
@@ -17,7 +18,12 @@ public class TestDataUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(TestDataUtils.class);
     private static final Faker faker = new Faker();
-    private static Map<String, ValueGenerator> generators = new HashMap<>();
+    private static final Map<String, ValueGenerator> generators = new ConcurrentHashMap<>();
+
+    static {
+        // 预编译模板会在多个线程中并发调用生成器，注册需在类加载时一次完成
+        registerDefaultGenerators();
+    }
 
 //    public TestDataUtils() {
 //        this.generators = new HashMap<>();
@@ -28,9 +34,6 @@ public class TestDataUtils {
      * 生成值
      */
     public static String generateValue(String methodName) {
-        if (generators.isEmpty()){
-            registerDefaultGenerators();
-        }
         ValueGenerator generator = generators.get(methodName);
         return generator.generate();
 //        if (generator != null) {